@@ -1,7 +1,13 @@
 package org.pms.api;
 
+import org.pms.api.dto.PermissionDictionaryDTO;
+import org.pms.api.dto.PublicKeySetDTO;
+import org.pms.api.dto.RevocationDeltaDTO;
+import org.pms.api.dto.SessionDTO;
 import org.pms.types.Response;
 
+import java.util.List;
+
 /**
  * Auth服务RPC接口
  * 用于Gateway和WS服务调用Auth服务的内部接口
@@ -12,6 +18,11 @@ import org.pms.types.Response;
  */
 public interface IAuthRpcService {
 	
+	/**
+	 * 服务间调用令牌请求头, 撤销和列出用户会话的接口须携带, 值为Auth服务配置的 auth.rpc.service-token
+	 */
+	String SERVICE_TOKEN_HEADER = "X-Service-Token";
+	
 	/**
 	 * 获取RSA公钥
 	 * Consumer端启动时通过InitializingBean主动调用此接口获取公钥
@@ -29,5 +40,61 @@ public interface IAuthRpcService {
 	 */
 	Response<Boolean> checkPublicKey(String publicKey);
 	
+	/**
+	 * 获取当前有效的公钥集合
+	 * 密钥轮换后同时包含当前公钥和轮换前的公钥, Consumer端据此构建 PublicKeyRing, 按kid选择验签公钥
+	 *
+	 * @return 公钥集合（kid -> Base64编码公钥）
+	 */
+	Response<PublicKeySetDTO> getPublicKeys();
+	
+	/**
+	 * 撤销用户的全部refreshToken, 并清除该用户的登录缓存
+	 * 用户服务在修改密码、锁定、解锁或删除账号后调用, 已签发的accessToken仍在有效期内可用
+	 * 需携带 {@link #SERVICE_TOKEN_HEADER} 请求头
+	 *
+	 * @param userId 用户ID
+	 * @return 撤销的会话数
+	 */
+	Response<Integer> revokeUserSessions(Long userId);
+	
+	/**
+	 * 列出用户当前的refreshToken会话
+	 * 需携带 {@link #SERVICE_TOKEN_HEADER} 请求头
+	 *
+	 * @param userId 用户ID
+	 * @return 会话列表, 按签发时间从新到旧排列
+	 */
+	Response<List<SessionDTO>> listUserSessions(Long userId);
+	
+	/**
+	 * 增量获取accessToken撤销列表
+	 * Consumer端通过 RevocationRefresher 定时调用, 在本地判断token是否被撤销
+	 *
+	 * @param since 上次返回的游标, 首次传0获取全部
+	 * @return 撤销时间不早于since的条目及新的游标
+	 */
+	Response<RevocationDeltaDTO> getRevocations(long since);
+	
+	/**
+	 * 获取当前的权限字典
+	 * Consumer端通过 PermissionDictionaryRefresher 定时调用, 用于解码token中的权限位图
+	 *
+	 * @return 权限字典
+	 */
+	Response<PermissionDictionaryDTO> getPermissionDictionary();
+	
+	/**
+	 * 获取指定版本的权限字典
+	 * Consumer端遇到未登记的字典版本时调用; Auth服务保留最近的若干个版本, 本实例没有该版本时先重新加载
+	 * 默认实现返回当前字典, 供尚未实现该接口的旧客户端兼容
+	 *
+	 * @param version 字典版本
+	 * @return 权限字典, 版本不存在时data为null
+	 */
+	default Response<PermissionDictionaryDTO> getPermissionDictionary(String version) {
+		return getPermissionDictionary();
+	}
+	
 }
 
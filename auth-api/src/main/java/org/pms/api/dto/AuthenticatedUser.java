@@ -1,9 +1,12 @@
 package org.pms.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.io.Serializable;
 import java.util.List;
@@ -22,7 +25,7 @@ import java.util.List;
  * @since 2025/12/14
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AuthenticatedUser implements Serializable {
@@ -35,9 +38,19 @@ public class AuthenticatedUser implements Serializable {
 	/**
 	 * 权限列表（字符串形式）
 	 * 例如：["user:read", "user:write", "ROLE_ADMIN"]
+	 * <p>
+	 * 由JwtVerifier创建时为不可变列表, 权限相同的用户共享同一实例, 直接修改会抛出 UnsupportedOperationException;
+	 * 需要增删权限时复制后通过 {@link #setAuthorities} 替换
 	 */
 	private List<String> authorities;
 	
+	/**
+	 * 不可变权限集合, 由JwtVerifier创建时设置, 权限相同的用户共享同一实例; 为空时按authorities列表判断
+	 */
+	@JsonIgnore
+	@Setter(AccessLevel.NONE)
+	private AuthoritySet authoritySet;
+	
 	/**
 	 * 账号是否被锁定
 	 */
@@ -57,6 +70,27 @@ public class AuthenticatedUser implements Serializable {
 		return this.accountNonExpired && this.accountNonLocked;
 	}
 	
+	/**
+	 * 替换权限列表, 同时丢弃由token解码的权限集合, 之后的权限判断以新列表为准
+	 *
+	 * @param authorities 权限列表
+	 */
+	public void setAuthorities(List<String> authorities) {
+		this.authorities = authorities;
+		this.authoritySet = null;
+	}
+	
+	/**
+	 * 复制认证用户, 用户信息同时复制; 权限列表和权限集合不可变, 与原对象共享
+	 *
+	 * @return 副本
+	 */
+	public AuthenticatedUser copy() {
+		return toBuilder()
+				.userAggregate(userAggregate != null ? userAggregate.toBuilder().build() : null)
+				.build();
+	}
+	
 	/**
 	 * 获取用户ID
 	 */
@@ -85,9 +119,30 @@ public class AuthenticatedUser implements Serializable {
 	 * @return 是否拥有该权限
 	 */
 	public boolean hasAuthority(String permission) {
+		if (authoritySet != null) {
+			return authoritySet.contains(permission);
+		}
 		return authorities != null && authorities.contains(permission);
 	}
 	
+	/**
+	 * 检查是否拥有任一指定权限
+	 *
+	 * @param permissions 权限字符串
+	 * @return 是否拥有其中任一权限
+	 */
+	public boolean hasAnyAuthority(String... permissions) {
+		if (authoritySet != null) {
+			return authoritySet.containsAny(permissions);
+		}
+		for (String permission : permissions) {
+			if (hasAuthority(permission)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	/**
 	 * 检查是否拥有指定角色
 	 *
@@ -95,7 +150,7 @@ public class AuthenticatedUser implements Serializable {
 	 * @return 是否拥有该角色
 	 */
 	public boolean hasRole(String role) {
-		return authorities != null && authorities.contains("ROLE_" + role);
+		return hasAuthority("ROLE_" + role);
 	}
 	
 }
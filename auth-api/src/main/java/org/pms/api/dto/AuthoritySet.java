@@ -0,0 +1,110 @@
+package org.pms.api.dto;
+
+import org.pms.api.utils.PermissionDictionary;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 不可变权限集合
+ * 由token中的权限位图解码时, 字典内的权限按位图判断, 字典外的权限（如角色）按名称集合判断;
+ * 由权限名创建时全部按名称集合判断, 均为O(1)
+ * <p>
+ * JwtVerifier按token中的字典版本和权限位图复用实例, 权限相同的用户共享同一个权限集合
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public final class AuthoritySet implements Serializable {
+	
+	private final PermissionDictionary dictionary;
+	private final BitSet bits;
+	private final Set<String> others;
+	
+	/**
+	 * 展开后的权限名列表, 与 AuthenticatedUser.authorities 的原有格式一致
+	 */
+	private final List<String> names;
+	
+	private AuthoritySet(PermissionDictionary dictionary, BitSet bits, Collection<String> others) {
+		this.dictionary = dictionary;
+		this.bits = (BitSet) bits.clone();
+		this.others = Set.copyOf(others);
+		Set<String> names = new LinkedHashSet<>();
+		for (int i = this.bits.nextSetBit(0); i >= 0; i = this.bits.nextSetBit(i + 1)) {
+			names.add(dictionary.get(i));
+		}
+		names.addAll(others);
+		this.names = List.copyOf(names);
+	}
+	
+	/**
+	 * 根据权限名创建权限集合
+	 *
+	 * @param authorities 权限名, 重复的权限只保留一个
+	 * @return 权限集合
+	 */
+	public static AuthoritySet of(Collection<String> authorities) {
+		return new AuthoritySet(null, new BitSet(), authorities);
+	}
+	
+	/**
+	 * 根据权限位图创建权限集合
+	 *
+	 * @param dictionary 权限字典
+	 * @param bits       权限位图
+	 * @param others     字典外的权限
+	 * @return 权限集合
+	 */
+	public static AuthoritySet of(PermissionDictionary dictionary, BitSet bits, Collection<String> others) {
+		return new AuthoritySet(dictionary, bits, others);
+	}
+	
+	/**
+	 * 判断是否包含指定权限
+	 *
+	 * @param authority 权限名
+	 * @return 是否包含
+	 */
+	public boolean contains(String authority) {
+		if (authority == null) {
+			return false;
+		}
+		int i = dictionary != null ? dictionary.indexOf(authority) : -1;
+		return i >= 0 ? bits.get(i) : others.contains(authority);
+	}
+	
+	/**
+	 * 判断是否包含任一指定权限
+	 *
+	 * @param authorities 权限名
+	 * @return 是否包含
+	 */
+	public boolean containsAny(String... authorities) {
+		for (String authority : authorities) {
+			if (contains(authority)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public int size() {
+		return names.size();
+	}
+	
+	/**
+	 * 获取权限名列表
+	 *
+	 * @return 不可变权限名列表
+	 */
+	public List<String> toList() {
+		return names;
+	}
+	
+}
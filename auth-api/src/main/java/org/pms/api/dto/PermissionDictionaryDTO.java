@@ -0,0 +1,34 @@
+package org.pms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Auth服务当前的权限字典
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class PermissionDictionaryDTO implements Serializable {
+	
+	/**
+	 * 字典版本号
+	 */
+	private String version;
+	
+	/**
+	 * 按r_permission的id排列的权限名, 下标即位图中的位号
+	 */
+	private List<String> permissions;
+	
+}
@@ -0,0 +1,33 @@
+package org.pms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Auth服务当前有效的公钥集合
+ * 包含当前签发用公钥和轮换前仍可验签的旧公钥
+ *
+ * @author alcsyooterranf
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class PublicKeySetDTO implements Serializable {
+	
+	/**
+	 * 当前签发用公钥的kid
+	 */
+	private String activeKeyId;
+	
+	/**
+	 * kid -> Base64编码的公钥
+	 */
+	private Map<String, String> keys;
+	
+}
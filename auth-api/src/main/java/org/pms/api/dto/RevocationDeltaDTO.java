@@ -0,0 +1,34 @@
+package org.pms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * accessToken撤销列表的增量
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class RevocationDeltaDTO implements Serializable {
+	
+	/**
+	 * jti -> 撤销时间（毫秒）
+	 */
+	private Map<String, Long> revoked;
+	
+	/**
+	 * 下次拉取时传入的游标
+	 */
+	private long cursor;
+	
+}
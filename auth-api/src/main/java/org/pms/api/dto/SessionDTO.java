@@ -0,0 +1,38 @@
+package org.pms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 用户的一个refreshToken会话
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class SessionDTO implements Serializable {
+	
+	/**
+	 * refreshToken的jti
+	 */
+	private String sessionId;
+	
+	/**
+	 * 签发时间, 秒级时间戳
+	 */
+	private long issuedAt;
+	
+	/**
+	 * 设备标识, 登录时未提供则为空
+	 */
+	private String device;
+	
+}
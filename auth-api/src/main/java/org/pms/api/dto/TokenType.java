@@ -0,0 +1,59 @@
+package org.pms.api.dto;
+
+/**
+ * token类型
+ * 签发时以紧凑的 tkn 声明写入荷载, 验签时据此区分accessToken和refreshToken
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public enum TokenType {
+	
+	/**
+	 * 访问token
+	 */
+	ACCESS("a"),
+	
+	/**
+	 * 刷新token
+	 */
+	REFRESH("r");
+	
+	/**
+	 * 荷载中token类型声明的名称
+	 */
+	public static final String CLAIM = "tkn";
+	
+	private final String code;
+	
+	TokenType(String code) {
+		this.code = code;
+	}
+	
+	/**
+	 * 获取写入荷载的类型编码
+	 *
+	 * @return 类型编码
+	 */
+	public String getCode() {
+		return code;
+	}
+	
+	/**
+	 * 根据类型编码获取token类型
+	 *
+	 * @param code 类型编码
+	 * @return token类型, 编码未知时返回null
+	 */
+	public static TokenType fromCode(String code) {
+		if (ACCESS.code.equals(code)) {
+			return ACCESS;
+		}
+		if (REFRESH.code.equals(code)) {
+			return REFRESH;
+		}
+		return null;
+	}
+	
+}
@@ -12,7 +12,7 @@ import java.util.List;
  * @author alcsyooterranf
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public final class UserAggregate implements Serializable {
@@ -0,0 +1,82 @@
+package org.pms.api.dto;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * token验证结果
+ * 由一次验签解析得到, 同时携带荷载、签发人校验结果、jti、token类型和认证用户信息,
+ * 调用方无需为获取不同信息而重复解析同一个token
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class VerifiedToken {
+	
+	/**
+	 * 荷载
+	 */
+	private final Claims claims;
+	
+	/**
+	 * 签发人是否合法
+	 */
+	private final boolean issuerValid;
+	
+	/**
+	 * token唯一标识
+	 */
+	private final String jti;
+	
+	/**
+	 * token类型
+	 */
+	private final TokenType tokenType;
+	
+	/**
+	 * 认证用户信息
+	 */
+	private final AuthenticatedUser authenticatedUser;
+	
+	/**
+	 * 复制验证结果, 认证用户为副本, 调用方修改副本不影响缓存中的结果
+	 *
+	 * @return 副本
+	 */
+	public VerifiedToken copy() {
+		return new VerifiedToken(claims, issuerValid, jti, tokenType,
+				authenticatedUser != null ? authenticatedUser.copy() : null);
+	}
+	
+	/**
+	 * 是否为refreshToken
+	 */
+	public boolean isRefreshToken() {
+		return tokenType == TokenType.REFRESH;
+	}
+	
+	/**
+	 * 获取refreshToken的jti, 与 validateToken 的返回值语义一致
+	 *
+	 * @return 若为refreshToken, 则返回其jti; 否则返回null
+	 */
+	public String getRefreshJti() {
+		return isRefreshToken() ? jti : null;
+	}
+	
+	/**
+	 * 获取token过期时间
+	 *
+	 * @return 毫秒时间戳
+	 */
+	public long getExpiresAt() {
+		return claims.getExpiration().getTime();
+	}
+	
+}
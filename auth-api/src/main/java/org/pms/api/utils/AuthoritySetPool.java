@@ -0,0 +1,116 @@
+package org.pms.api.utils;
+
+import org.pms.api.dto.AuthoritySet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限集合复用池
+ * 只复用按权限字典编码的token: 以字典版本、Base64URL位图字符串和少量字典外权限的原始声明为key,
+ * 查找时不解码位图、不遍历权限名; 权限声明相同的用户共享同一个不可变权限集合
+ * <p>
+ * 基于ConcurrentHashMap, 查找不加锁; 条目数达到上限后不再放入新条目, 已有条目保持不变,
+ * 字典版本不再保留时由 {@link #retainVersions} 移除对应条目
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+final class AuthoritySetPool {
+	
+	private final int maximumSize;
+	private final ConcurrentHashMap<AuthorityClaims, AuthoritySet> sets = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param maximumSize 最大条目数
+	 */
+	AuthoritySetPool(int maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+	
+	/**
+	 * 查找权限集合
+	 *
+	 * @param claims 权限声明
+	 * @return 未命中时返回null
+	 */
+	AuthoritySet get(AuthorityClaims claims) {
+		return sets.get(claims);
+	}
+	
+	/**
+	 * 放入权限集合, 已存在时返回已有的实例; 池已满时不放入, 直接返回传入的实例
+	 *
+	 * @param claims       权限声明
+	 * @param authoritySet 权限集合
+	 * @return 池中的权限集合
+	 */
+	AuthoritySet putIfAbsent(AuthorityClaims claims, AuthoritySet authoritySet) {
+		if (sets.size() >= maximumSize) {
+			return authoritySet;
+		}
+		AuthoritySet existing = sets.putIfAbsent(claims.copy(), authoritySet);
+		return existing != null ? existing : authoritySet;
+	}
+	
+	/**
+	 * 移除不在指定字典版本中的条目
+	 *
+	 * @param versions 仍保留的字典版本
+	 */
+	void retainVersions(Collection<String> versions) {
+		sets.keySet().removeIf(claims -> !versions.contains(claims.dictionaryVersion));
+	}
+	
+	/**
+	 * 按权限字典编码的token中与权限相关的原始声明
+	 * 查找时直接引用Claims中的值, 哈希值在构造时计算; 字典外的权限通常只有角色, 列表很短
+	 */
+	static final class AuthorityClaims {
+		
+		private final String dictionaryVersion;
+		private final String bits;
+		private final Object others;
+		private final Object roleName;
+		private final int hash;
+		
+		AuthorityClaims(String dictionaryVersion, String bits, Object others, Object roleName) {
+			this.dictionaryVersion = dictionaryVersion;
+			this.bits = bits;
+			this.others = others;
+			this.roleName = roleName;
+			this.hash = Objects.hash(dictionaryVersion, bits, others, roleName);
+		}
+		
+		private AuthorityClaims copy() {
+			Object others = this.others instanceof List<?> list ? new ArrayList<>(list) : this.others;
+			return new AuthorityClaims(dictionaryVersion, bits, others, roleName);
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof AuthorityClaims that)) {
+				return false;
+			}
+			return hash == that.hash
+					&& Objects.equals(bits, that.bits)
+					&& Objects.equals(dictionaryVersion, that.dictionaryVersion)
+					&& Objects.equals(roleName, that.roleName)
+					&& Objects.equals(others, that.others);
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	
+	}
+	
+}
@@ -0,0 +1,54 @@
+package org.pms.api.utils;
+
+/**
+ * 判断当前线程是否为不允许阻塞的事件循环线程
+ * auth-api不依赖Reactor和Netty, 按类名识别: 实现了 reactor.core.scheduler.NonBlocking 的线程
+ * （Reactor的parallel/single调度器及Reactor Netty的事件循环）, 以及Netty创建的 FastThreadLocalThread。
+ * 验签线程在这些线程上不等待后台刷新, 只触发刷新后立即返回
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+final class EventLoops {
+	
+	private static final String NON_BLOCKING_INTERFACE = "reactor.core.scheduler.NonBlocking";
+	private static final String NETTY_THREAD_CLASS = "io.netty.util.concurrent.FastThreadLocalThread";
+	
+	/**
+	 * 线程类型 -> 是否为事件循环线程, 每种线程类型只判断一次
+	 */
+	private static final ClassValue<Boolean> EVENT_LOOP_TYPES = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				if (NETTY_THREAD_CLASS.equals(c.getName()) || implementsNonBlocking(c)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	};
+	
+	private EventLoops() {
+	}
+	
+	/**
+	 * 当前线程是否为事件循环线程
+	 *
+	 * @return 是否不允许阻塞
+	 */
+	static boolean inEventLoop() {
+		return EVENT_LOOP_TYPES.get(Thread.currentThread().getClass());
+	}
+	
+	private static boolean implementsNonBlocking(Class<?> type) {
+		for (Class<?> i : type.getInterfaces()) {
+			if (NON_BLOCKING_INTERFACE.equals(i.getName()) || implementsNonBlocking(i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+}
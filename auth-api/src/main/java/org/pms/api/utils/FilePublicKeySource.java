@@ -0,0 +1,57 @@
+package org.pms.api.utils;
+
+import org.pms.types.AuthConstants;
+
+import java.io.File;
+
+/**
+ * 基于本地公钥文件的公钥来源
+ * 每次加载只检查文件的修改时间和大小, 文件变化（如运维替换公钥文件）后才重新读取并解析
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class FilePublicKeySource implements PublicKeySource {
+	
+	private final File file;
+	
+	/**
+	 * 上次加载时文件的修改时间和大小, 只由刷新线程访问
+	 */
+	private long lastModified = -1L;
+	private long length = -1L;
+	
+	/**
+	 * 使用默认的公钥文件路径 KEY_PATH + PUBLIC_KEY_FILENAME
+	 */
+	public FilePublicKeySource() {
+		this(AuthConstants.KEY_PATH + AuthConstants.PUBLIC_KEY_FILENAME);
+	}
+	
+	public FilePublicKeySource(String fileName) {
+		this.file = new File(fileName);
+	}
+	
+	@Override
+	public PublicKeyRing load() throws Exception {
+		long currentModified = file.lastModified();
+		long currentLength = file.length();
+		if (currentModified == 0L) {
+			throw new IllegalStateException("公钥文件不存在: " + file.getPath());
+		}
+		if (currentModified == lastModified && currentLength == length) {
+			return null;
+		}
+		PublicKeyRing keyRing = PublicKeyRing.of(RSAUtil.getPublicKey(file.getPath()));
+		lastModified = currentModified;
+		length = currentLength;
+		return keyRing;
+	}
+	
+	@Override
+	public String describe() {
+		return "file:" + file.getPath();
+	}
+	
+}
@@ -3,13 +3,18 @@ package org.pms.api.utils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
+import org.pms.api.dto.TokenType;
 import org.pms.api.dto.UserAggregate;
 import org.pms.types.AuthCode;
 import org.pms.types.AuthConstants;
 
+import java.security.Key;
 import java.security.PublicKey;
 import java.util.List;
 
@@ -18,6 +23,7 @@ import java.util.List;
  * 用于Gateway和WS服务验证JWT签名
  * 只持有公钥，不负责签发token
  * 这是一个纯Java工具类，不依赖Spring框架
+ * 只做验签和解析, 不检查accessToken撤销列表; 业务代码应通过 {@link JwtVerifier} 调用
  *
  * @author alcsyooterranf
  * @version 1.0
@@ -31,7 +37,33 @@ public class JwtUtil {
 	private static final String USER_ID = AuthConstants.USER_ID;
 	private static final String USER_NAME = AuthConstants.USER_NAME;
 	private static final String AUTHORITIES = AuthConstants.AUTHORITIES;
-	private static PublicKey PUBLIC_KEY;
+	
+	/**
+	 * 当前验签公钥环
+	 * 公钥变化时整体替换引用, 验签线程无需加锁, 也不会读到不完整的公钥集合
+	 */
+	private static volatile PublicKeyRing KEY_RING;
+	
+	/**
+	 * 公钥刷新器, 遇到未知kid时触发立即刷新; 由 {@link PublicKeyRefresher#start} 登记
+	 */
+	private static volatile PublicKeyRefresher KEY_REFRESHER;
+	
+	/**
+	 * JwtParser不可变且线程安全, 只构建一次; 验签公钥由keyLocator按JWT头部的kid从当前公钥环中选取
+	 */
+	private static final JwtParser PARSER = Jwts.parser()
+			.keyLocator(new LocatorAdapter<Key>() {
+				@Override
+				protected Key locate(ProtectedHeader header) {
+					PublicKey publicKey = getKeyRing().select(header.getKeyId());
+					if (publicKey == null) {
+						throw new UnknownKeyIdException(header.getKeyId());
+					}
+					return publicKey;
+				}
+			})
+			.build();
 	
 	/**
 	 * 初始化公钥
@@ -39,7 +71,7 @@ public class JwtUtil {
 	 */
 	public static void initKey() {
 		try {
-			PUBLIC_KEY = RSAUtil.getPublicKey();
+			updateKey(RSAUtil.getPublicKey());
 			log.info("JwtUtil: 初始化RSA公钥成功");
 		} catch (Exception e) {
 			log.error("初始化RSA公钥失败: {}", e.getMessage());
@@ -47,6 +79,62 @@ public class JwtUtil {
 		}
 	}
 	
+	/**
+	 * 更新验签公钥（单个公钥）
+	 *
+	 * @param publicKey 公钥
+	 * @return 公钥是否发生了变化
+	 */
+	public static boolean updateKey(PublicKey publicKey) {
+		if (publicKey == null) {
+			throw new IllegalArgumentException("公钥不能为空");
+		}
+		return updateKeyRing(PublicKeyRing.of(publicKey));
+	}
+	
+	/**
+	 * 更新验签公钥环
+	 * 公钥环未变化时不做任何操作; 变化时原子替换, 正在验签的线程继续使用旧公钥环完成本次校验
+	 *
+	 * @param keyRing 公钥环
+	 * @return 公钥环是否发生了变化
+	 */
+	public static boolean updateKeyRing(PublicKeyRing keyRing) {
+		if (keyRing == null) {
+			throw new IllegalArgumentException("公钥环不能为空");
+		}
+		if (keyRing.equals(KEY_RING)) {
+			return false;
+		}
+		KEY_RING = keyRing;
+		log.info("JwtUtil: 验签公钥已更新, activeKeyId: {}, keyIds: {}", keyRing.getActiveKeyId(), keyRing.getKeys().keySet());
+		return true;
+	}
+	
+	static void setKeyRefresher(PublicKeyRefresher refresher) {
+		KEY_REFRESHER = refresher;
+	}
+	
+	static void clearKeyRefresher(PublicKeyRefresher refresher) {
+		if (KEY_REFRESHER == refresher) {
+			KEY_REFRESHER = null;
+		}
+	}
+	
+	/**
+	 * 获取当前的验签公钥环
+	 *
+	 * @return 公钥环
+	 * @throws IllegalStateException 如果公钥尚未初始化
+	 */
+	public static PublicKeyRing getKeyRing() {
+		PublicKeyRing keyRing = KEY_RING;
+		if (keyRing == null) {
+			throw new IllegalStateException("JwtUtil 公钥尚未初始化，请先调用 initKey 或 updateKey");
+		}
+		return keyRing;
+	}
+	
 	/**
 	 * 从token中获取UserAggregate对象（纯Java对象，不依赖Spring Security）
 	 *
@@ -54,8 +142,16 @@ public class JwtUtil {
 	 * @return UserAggregate对象
 	 */
 	public static UserAggregate getUserAggregateFromToken(String token) {
-		Claims claims = getClaimsFromToken(token);
-		
+		return getUserAggregate(getClaimsFromToken(token));
+	}
+	
+	/**
+	 * 从已验签的荷载中获取UserAggregate对象
+	 *
+	 * @param claims 荷载
+	 * @return UserAggregate对象
+	 */
+	public static UserAggregate getUserAggregate(Claims claims) {
 		return UserAggregate.builder()
 				.id(Long.parseLong(claims.get(USER_ID).toString()))
 				.username((String) claims.get(USER_NAME))
@@ -82,21 +178,63 @@ public class JwtUtil {
 	 */
 	public static String validateToken(String token) {
 		// 1. 验证签名, 先检查系统级别的三个异常
-		Claims claims = getClaimsFromToken(token);
-		
+		return validateClaims(getClaimsFromToken(token));
+	}
+	
+	/**
+	 * 校验已验签的荷载并判断token是否为refreshToken
+	 *
+	 * @param claims 荷载
+	 * @return 若为refreshToken, 则返回其jti; 否则返回null
+	 */
+	public static String validateClaims(Claims claims) {
 		// 2. 验证签发人, 检查用户级别异常
-		if (!ISS.equals(claims.getIssuer())) {
+		if (!isIssuerValid(claims)) {
 			throw new RuntimeException(AuthCode.TOKEN_ISSUER_ERROR.getMessage());
 		}
 		
-		// 3. token未过期, 根据过期时间计算token是否为refreshToken, 如果是则需要验证refreshToken存在性
-		long expireTime = claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
-		if (expireTime == (REFRESH_EXPIRATION * 1000)) {
-			return getJTIFromToken(token);
+		// 3. token未过期, 判断token是否为refreshToken, 如果是则需要验证refreshToken存在性
+		// 直接从已解析的荷载中取jti, 避免再次验签
+		if (getTokenType(claims) == TokenType.REFRESH) {
+			return claims.getId();
 		}
 		return null;
 	}
 	
+	/**
+	 * 校验签发人是否合法
+	 *
+	 * @param claims 荷载
+	 * @return 是否合法
+	 */
+	public static boolean isIssuerValid(Claims claims) {
+		return ISS.equals(claims.getIssuer());
+	}
+	
+	/**
+	 * 根据荷载判断token类型
+	 * 优先读取签发时写入的 tkn 声明; 对于未携带该声明的旧token, 回退为根据过期时间计算
+	 * <p>
+	 * 该回退是有意保留的兼容逻辑: 与auth-api 1.1.0同时发布的Auth服务签发的token都携带 tkn 声明;
+	 * Auth服务升级到该版本并运行满一个refreshToken有效期后, 旧token已全部过期, auth-api 1.2.0可以删除该回退
+	 *
+	 * @param claims 荷载
+	 * @return token类型
+	 */
+	public static TokenType getTokenType(Claims claims) {
+		Object code = claims.get(TokenType.CLAIM);
+		if (code != null) {
+			TokenType tokenType = TokenType.fromCode(code.toString());
+			if (tokenType == null) {
+				throw new RuntimeException(AuthCode.TOKEN_PARSE_ERROR.getMessage());
+			}
+			return tokenType;
+		}
+		// 未携带tkn声明的旧token, 按有效期长度区分类型
+		long expireTime = claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
+		return expireTime == (REFRESH_EXPIRATION * 1000) ? TokenType.REFRESH : TokenType.ACCESS;
+	}
+	
 	/**
 	 * 从token中获取JTI
 	 *
@@ -109,35 +247,55 @@ public class JwtUtil {
 	
 	/**
 	 * 从token中获取荷载, 出现异常时抛出AppException
+	 * kid未知时先等待公钥刷新器拉取一次公钥环再重试, 仍未知时按token被篡改处理;
+	 * 在事件循环线程上不等待, 只触发后台拉取并按token被篡改处理
 	 *
 	 * @param token token
 	 * @return 荷载
 	 */
 	public static Claims getClaimsFromToken(String token) {
-		Claims claims;
 		try {
-			claims = Jwts.parser()
-					.verifyWith(PUBLIC_KEY)
-					.build()
-					.parseSignedClaims(token)
-					.getPayload();
-		} catch (JwtException e) {
-			if (e instanceof ExpiredJwtException) {
-				log.error("异常代码: {}, 异常信息: {}", AuthCode.TOKEN_EXPIRED.getCode(),
-						AuthCode.TOKEN_EXPIRED.getMessage());
-				throw new RuntimeException(AuthCode.TOKEN_EXPIRED.getMessage(), e);
-			} else if (e instanceof SignatureException) {
-				log.error("异常代码: {}, 异常信息: {}", AuthCode.TOKEN_TAMPERED.getCode(),
-						AuthCode.TOKEN_TAMPERED.getMessage());
-				throw new RuntimeException(AuthCode.TOKEN_TAMPERED.getMessage(), e);
-			} else {
-				log.error("异常代码: {}, 异常信息: {}", AuthCode.TOKEN_PARSE_ERROR.getCode(),
-						AuthCode.TOKEN_PARSE_ERROR.getMessage());
-				throw new RuntimeException(AuthCode.TOKEN_PARSE_ERROR.getMessage(), e);
+			return PARSER.parseSignedClaims(token).getPayload();
+		} catch (UnknownKeyIdException e) {
+			PublicKeyRefresher refresher = KEY_REFRESHER;
+			if (refresher != null && refresher.refreshForUnknownKey()) {
+				try {
+					return PARSER.parseSignedClaims(token).getPayload();
+				} catch (JwtException retry) {
+					throw translate(retry);
+				}
 			}
+			throw translate(e);
+		} catch (JwtException e) {
+			throw translate(e);
 		}
-		return claims;
+	}
+	
+	private static RuntimeException translate(JwtException e) {
+		if (e instanceof ExpiredJwtException) {
+			log.error("异常代码: {}, 异常信息: {}", AuthCode.TOKEN_EXPIRED.getCode(),
+					AuthCode.TOKEN_EXPIRED.getMessage());
+			return new RuntimeException(AuthCode.TOKEN_EXPIRED.getMessage(), e);
+		} else if (e instanceof SignatureException || e instanceof UnknownKeyIdException) {
+			log.error("异常代码: {}, 异常信息: {}", AuthCode.TOKEN_TAMPERED.getCode(),
+					AuthCode.TOKEN_TAMPERED.getMessage());
+			return new RuntimeException(AuthCode.TOKEN_TAMPERED.getMessage(), e);
+		} else {
+			log.error("异常代码: {}, 异常信息: {}", AuthCode.TOKEN_PARSE_ERROR.getCode(),
+					AuthCode.TOKEN_PARSE_ERROR.getMessage());
+			return new RuntimeException(AuthCode.TOKEN_PARSE_ERROR.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * JWT头部的kid不在当前公钥环中
+	 */
+	private static final class UnknownKeyIdException extends JwtException {
+		
+		UnknownKeyIdException(String kid) {
+			super("未知的kid: " + kid);
+		}
+		
 	}
 	
 }
-
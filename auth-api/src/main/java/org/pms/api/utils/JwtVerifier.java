@@ -3,16 +3,25 @@ package org.pms.api.utils;
 import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.pms.api.dto.AuthenticatedUser;
+import org.pms.api.dto.AuthoritySet;
 import org.pms.api.dto.UserAggregate;
+import org.pms.api.dto.VerifiedToken;
+import org.pms.api.utils.AuthoritySetPool.AuthorityClaims;
+import org.pms.types.AuthCode;
 import org.pms.types.AuthConstants;
 
+import java.security.PublicKey;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * JWT验证器（纯Java实现，不依赖Spring）
  * 封装JwtUtil，提供更高级的JWT验证和用户信息提取功能
+ * 所有公开的token入口都在验签后检查accessToken撤销列表, 已撤销的token按过期处理
  * 
  * 与 JwtService 的区别：
  * - 不使用 @Service 注解
@@ -32,6 +41,41 @@ public class JwtVerifier {
     private static final String AUTHORITIES = AuthConstants.AUTHORITIES;
     private static final String PERMISSIONS = AuthConstants.PERMISSIONS;
 
+    /**
+     * 已验签token结果缓存, 默认关闭, 通过 enableCache 开启
+     */
+    private static volatile VerifiedTokenCache CACHE;
+
+    /**
+     * 保留的权限字典版本数, 字典变化前签发、尚未过期的token仍可解码
+     */
+    private static final int MAX_PERMISSION_DICTIONARIES = 4;
+
+    /**
+     * 字典版本 -> 权限字典, 按登记顺序排列, 整体替换
+     */
+    private static volatile Map<String, PermissionDictionary> PERMISSION_DICTIONARIES = Map.of();
+
+    /**
+     * 权限字典同步器, 遇到未登记的字典版本时触发立即拉取
+     */
+    private static volatile PermissionDictionaryRefresher PERMISSION_DICTIONARY_REFRESHER;
+
+    /**
+     * 复用的权限集合数量上限, 达到上限后新的权限组合不再复用; 权限组合的数量远小于用户数
+     */
+    private static final int MAX_AUTHORITY_SETS = 1024;
+
+    /**
+     * 按权限字典编码的权限声明 -> 权限集合, 权限声明相同的用户共享同一个不可变权限集合
+     */
+    private static final AuthoritySetPool AUTHORITY_SETS = new AuthoritySetPool(MAX_AUTHORITY_SETS);
+
+    /**
+     * accessToken撤销列表, 由 {@link RevocationRefresher} 同步, 未开启同步时为空
+     */
+    private static volatile RevocationList REVOCATIONS = RevocationList.EMPTY;
+
     /**
      * 初始化公钥
      * 由调用方在获取公钥文件后调用
@@ -41,15 +85,204 @@ public class JwtVerifier {
         log.info("JwtVerifier: 公钥初始化完成");
     }
 
+    /**
+     * 更新验签公钥
+     * 供调用方在公钥变化（如重新拉取公钥）后调用, 无需重启服务
+     *
+     * @param publicKey 公钥
+     */
+    public static void updateKey(PublicKey publicKey) {
+        VerifiedTokenCache cache = CACHE;
+        if (JwtUtil.updateKey(publicKey) && cache != null) {
+            // 公钥变化后, 旧公钥下的验签结果不再可信
+            cache.clear();
+        }
+    }
+
+    /**
+     * 更新验签公钥环
+     * 供调用方在拉取到Auth服务轮换后的公钥集合后调用, 轮换前签发的token仍可按kid验签
+     *
+     * @param keyRing 公钥环
+     */
+    public static void updateKeyRing(PublicKeyRing keyRing) {
+        VerifiedTokenCache cache = CACHE;
+        if (JwtUtil.updateKeyRing(keyRing) && cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 替换accessToken撤销列表
+     *
+     * @param revocations 撤销列表
+     */
+    public static void updateRevocations(RevocationList revocations) {
+        REVOCATIONS = revocations;
+    }
+
+    /**
+     * 获取当前的accessToken撤销列表
+     *
+     * @return 撤销列表
+     */
+    public static RevocationList getRevocations() {
+        return REVOCATIONS;
+    }
+
+    /**
+     * 登记权限字典, 超出保留数量时移除最早登记的版本
+     *
+     * @param dictionary 权限字典
+     */
+    public static synchronized void registerPermissionDictionary(PermissionDictionary dictionary) {
+        Map<String, PermissionDictionary> dictionaries = new LinkedHashMap<>(PERMISSION_DICTIONARIES);
+        dictionaries.remove(dictionary.getVersion());
+        dictionaries.put(dictionary.getVersion(), dictionary);
+        while (dictionaries.size() > MAX_PERMISSION_DICTIONARIES) {
+            dictionaries.remove(dictionaries.keySet().iterator().next());
+        }
+        PERMISSION_DICTIONARIES = Collections.unmodifiableMap(dictionaries);
+        AUTHORITY_SETS.retainVersions(dictionaries.keySet());
+        log.info("JwtVerifier: 已登记权限字典, version: {}, 权限数: {}", dictionary.getVersion(), dictionary.size());
+    }
+
+    /**
+     * 判断是否已登记指定版本的权限字典
+     *
+     * @param version 字典版本
+     * @return 是否已登记
+     */
+    public static boolean hasPermissionDictionary(String version) {
+        return PERMISSION_DICTIONARIES.containsKey(version);
+    }
+
+    static void setPermissionDictionaryRefresher(PermissionDictionaryRefresher refresher) {
+        PERMISSION_DICTIONARY_REFRESHER = refresher;
+    }
+
+    /**
+     * 开启已验签token结果缓存
+     * 同一token在其有效期内只做一次验签和解析, 缓存条目在token的exp时刻过期
+     *
+     * @param maximumSize 最大缓存条目数
+     */
+    public static void enableCache(int maximumSize) {
+        CACHE = new VerifiedTokenCache(maximumSize);
+        log.info("JwtVerifier: 已开启验签结果缓存, maximumSize: {}", maximumSize);
+    }
+
+    /**
+     * 关闭已验签token结果缓存
+     */
+    public static void disableCache() {
+        CACHE = null;
+        log.info("JwtVerifier: 已关闭验签结果缓存");
+    }
+
+    /**
+     * 获取验签结果缓存的统计信息
+     *
+     * @return 统计快照, 未开启缓存时返回null
+     */
+    public static VerifiedTokenCache.Stats getCacheStats() {
+        VerifiedTokenCache cache = CACHE;
+        return cache != null ? cache.stats() : null;
+    }
+
     /**
      * 从token中获取AuthenticatedUser对象
+     * 开启缓存时返回缓存结果的副本, 调用方修改不会影响其他请求
      *
      * @param token JWT token
      * @return AuthenticatedUser对象
      */
-    @SuppressWarnings("unchecked")
     public static AuthenticatedUser getAuthenticatedUser(String token) {
-        Claims claims = JwtUtil.getClaimsFromToken(token);
+        return verify(token).getAuthenticatedUser();
+    }
+
+    /**
+     * 验证token并一次性返回荷载、签发人校验结果、jti、token类型和认证用户信息
+     * 整个过程只验签解析一次, 可替代 validateToken + getAuthenticatedUser 的组合调用;
+     * 签发人不合法时不抛出异常, 由调用方根据 isIssuerValid 处理; token已被撤销时按过期处理
+     * 开启缓存时返回缓存结果的副本, 撤销检查在返回缓存结果之前进行
+     *
+     * @param token JWT token
+     * @return token验证结果
+     */
+    public static VerifiedToken verify(String token) {
+        VerifiedTokenCache cache = CACHE;
+        if (cache == null) {
+            return checkNotRevoked(buildVerifiedToken(JwtUtil.getClaimsFromToken(token)));
+        }
+        VerifiedToken cached = cache.get(token);
+        if (cached != null) {
+            return checkNotRevoked(cached).copy();
+        }
+        // 先读取代数再验签, 验签期间公钥环变化时结果不写入缓存
+        long generation = cache.generation();
+        VerifiedToken verifiedToken = buildVerifiedToken(JwtUtil.getClaimsFromToken(token));
+        cache.put(token, verifiedToken, generation);
+        return checkNotRevoked(verifiedToken).copy();
+    }
+
+    /**
+     * 检查token是否已被撤销, 只读取本地撤销列表
+     *
+     * @param verifiedToken token验证结果
+     * @return 未被撤销时原样返回
+     */
+    private static VerifiedToken checkNotRevoked(VerifiedToken verifiedToken) {
+        checkNotRevoked(verifiedToken.getJti());
+        return verifiedToken;
+    }
+
+    private static void checkNotRevoked(String jti) {
+        if (REVOCATIONS.isRevoked(jti)) {
+            log.error("异常代码: {}, 异常信息: {}, token已被撤销, jti: {}", AuthCode.TOKEN_EXPIRED.getCode(),
+                    AuthCode.TOKEN_EXPIRED.getMessage(), jti);
+            throw new RuntimeException(AuthCode.TOKEN_EXPIRED.getMessage());
+        }
+    }
+
+    /**
+     * 验签并检查撤销列表, 返回荷载
+     * 开启缓存且命中时直接使用缓存结果中的荷载, 不再验签; 荷载不可变, 无需复制
+     *
+     * @param token JWT token
+     * @return 荷载
+     */
+    private static Claims verifiedClaims(String token) {
+        VerifiedTokenCache cache = CACHE;
+        VerifiedToken cached = cache != null ? cache.get(token) : null;
+        Claims claims = cached != null ? cached.getClaims() : JwtUtil.getClaimsFromToken(token);
+        checkNotRevoked(claims.getId());
+        return claims;
+    }
+
+    /**
+     * 根据Claims构建token验证结果
+     *
+     * @param claims JWT Claims
+     * @return token验证结果
+     */
+    private static VerifiedToken buildVerifiedToken(Claims claims) {
+        return VerifiedToken.builder()
+                .claims(claims)
+                .issuerValid(JwtUtil.isIssuerValid(claims))
+                .jti(claims.getId())
+                .tokenType(JwtUtil.getTokenType(claims))
+                .authenticatedUser(buildAuthenticatedUser(claims))
+                .build();
+    }
+
+    /**
+     * 根据Claims构建AuthenticatedUser对象
+     *
+     * @param claims JWT Claims
+     * @return AuthenticatedUser对象
+     */
+    private static AuthenticatedUser buildAuthenticatedUser(Claims claims) {
 
         // 构建UserAggregate
         UserAggregate userAggregate = UserAggregate.builder()
@@ -58,61 +291,111 @@ public class JwtVerifier {
                 .roleName((String) claims.get(ROLE_NAME))
                 .build();
 
-        // 提取权限列表
-        List<String> authorities = extractAuthorities(claims);
+        // 提取权限集合
+        AuthoritySet authoritySet = extractAuthorities(claims);
 
         return AuthenticatedUser.builder()
                 .userAggregate(userAggregate)
-                .authorities(authorities)
+                .authorities(authoritySet.toList())
+                .authoritySet(authoritySet)
                 .accountNonLocked(true)
                 .accountNonExpired(true)
                 .build();
     }
 
     /**
-     * 从Claims中提取权限列表
-     * 支持两种格式：
-     * 1. authorities: [{"authority": "user:read"}, {"authority": "user:write"}]
+     * 按权限字典解码权限位图
+     *
+     * @param version 字典版本
+     * @param bits    Base64URL编码的权限位图
+     * @param others  字典外的权限
+     * @return 权限集合
+     */
+    private static AuthoritySet decodeAuthorities(String version, String bits, List<String> others) {
+        PermissionDictionary dictionary = PERMISSION_DICTIONARIES.get(version);
+        if (dictionary == null) {
+            // 按token携带的版本拉取一次, 拉取受最小间隔限制, 伪造的版本不会放大为对Auth服务的请求
+            PermissionDictionaryRefresher refresher = PERMISSION_DICTIONARY_REFRESHER;
+            if (refresher != null && refresher.refreshForUnknownVersion(version)) {
+                dictionary = PERMISSION_DICTIONARIES.get(version);
+            }
+        }
+        if (dictionary == null) {
+            log.error("异常代码: {}, 异常信息: {}, 未知的权限字典版本: {}", AuthCode.TOKEN_PARSE_ERROR.getCode(),
+                    AuthCode.TOKEN_PARSE_ERROR.getMessage(), version);
+            throw new RuntimeException(AuthCode.TOKEN_PARSE_ERROR.getMessage());
+        }
+        return AuthoritySet.of(dictionary, bits != null ? dictionary.decode(bits) : new BitSet(), others);
+    }
+
+    /**
+     * 从Claims中提取权限集合
+     * 按权限字典编码的token先以字典版本和位图字符串查找已有的权限集合, 命中时不解码位图、不分配新列表;
+     * 以权限名数组编码的token逐项解析, 不复用
+     *
+     * @param claims JWT Claims
+     * @return 不可变权限集合
+     */
+    private static AuthoritySet extractAuthorities(Claims claims) {
+        Object version = claims.get(PermissionDictionary.VERSION_CLAIM);
+        if (version == null || claims.get(PERMISSIONS) != null) {
+            return buildAuthoritySet(claims);
+        }
+        AuthorityClaims key = new AuthorityClaims(version.toString(),
+                (String) claims.get(PermissionDictionary.BITS_CLAIM), claims.get(AUTHORITIES), claims.get(ROLE_NAME));
+        AuthoritySet authoritySet = AUTHORITY_SETS.get(key);
+        if (authoritySet != null) {
+            return authoritySet;
+        }
+        return AUTHORITY_SETS.putIfAbsent(key, buildAuthoritySet(claims));
+    }
+
+    /**
+     * 解析权限声明
+     * 支持以下格式：
+     * 1. authorities: [{"authority": "user:read"}, {"authority": "user:write"}] 或 ["user:read", "user:write"]
      * 2. permissions: ["user:read", "user:write"]
+     * 3. pdv/pbs: 按权限字典编码的权限位图, 此时authorities中只有字典外的权限
      *
      * @param claims JWT Claims
-     * @return 权限字符串列表
+     * @return 不可变权限集合
      */
-    @SuppressWarnings("unchecked")
-    private static List<String> extractAuthorities(Claims claims) {
+    private static AuthoritySet buildAuthoritySet(Claims claims) {
         List<String> authorities = new ArrayList<>();
 
-        // 尝试从 authorities 字段提取（Spring Security格式）
-        Object authoritiesObj = claims.get(AUTHORITIES);
-        if (authoritiesObj instanceof List) {
-            List<?> list = (List<?>) authoritiesObj;
+        // 尝试从 authorities 字段提取（Spring Security格式或字符串列表）
+        if (claims.get(AUTHORITIES) instanceof List<?> list) {
             for (Object item : list) {
-                if (item instanceof LinkedHashMap) {
-                    LinkedHashMap<String, String> map = (LinkedHashMap<String, String>) item;
-                    String authority = map.get("authority");
+                if (item instanceof Map<?, ?> map) {
+                    Object authority = map.get("authority");
                     if (authority != null) {
-                        authorities.add(authority);
+                        authorities.add(authority.toString());
                     }
-                } else if (item instanceof String) {
-                    authorities.add((String) item);
+                } else if (item instanceof String authority) {
+                    authorities.add(authority);
                 }
             }
         }
 
         // 尝试从 permissions 字段提取（简单字符串列表格式）
-        Object permissionsObj = claims.get(PERMISSIONS);
-        if (permissionsObj instanceof List) {
-            List<String> permissions = (List<String>) permissionsObj;
-            authorities.addAll(permissions);
+        if (claims.get(PERMISSIONS) instanceof List<?> list) {
+            for (Object item : list) {
+                if (item instanceof String permission) {
+                    authorities.add(permission);
+                }
+            }
         }
 
         // 添加角色权限（如果存在）
-        String roleName = (String) claims.get(ROLE_NAME);
-        if (roleName != null && !roleName.isEmpty()) {
+        if (claims.get(ROLE_NAME) instanceof String roleName && !roleName.isEmpty()) {
             authorities.add("ROLE_" + roleName);
         }
 
-        return authorities;
+        Object version = claims.get(PermissionDictionary.VERSION_CLAIM);
+        if (version != null) {
+            return decodeAuthorities(version.toString(), (String) claims.get(PermissionDictionary.BITS_CLAIM), authorities);
+        }
+        return AuthoritySet.of(authorities);
     }
 
     /**
@@ -122,7 +405,7 @@ public class JwtVerifier {
      * @return 若为refreshToken, 则返回其jti; 否则返回null
      */
     public static String validateToken(String token) {
-        return JwtUtil.validateToken(token);
+        return JwtUtil.validateClaims(verifiedClaims(token));
     }
 
     /**
@@ -132,7 +415,7 @@ public class JwtVerifier {
      * @return JTI
      */
     public static String getJTI(String token) {
-        return JwtUtil.getJTIFromToken(token);
+        return verifiedClaims(token).getId();
     }
 
     /**
@@ -142,7 +425,7 @@ public class JwtVerifier {
      * @return UserAggregate对象
      */
     public static UserAggregate getUserAggregate(String token) {
-        return JwtUtil.getUserAggregateFromToken(token);
+        return JwtUtil.getUserAggregate(verifiedClaims(token));
     }
 
     /**
@@ -152,7 +435,7 @@ public class JwtVerifier {
      * @return Claims对象
      */
     public static Claims getClaims(String token) {
-        return JwtUtil.getClaimsFromToken(token);
+        return verifiedClaims(token);
     }
 
 }
@@ -0,0 +1,164 @@
+package org.pms.api.utils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限字典（不可变）
+ * 由Auth服务按 r_permission 的id顺序发布, 权限在字典中的下标即token中权限位图的位号;
+ * 开启位图编码后, token以 {@value #VERSION_CLAIM}（字典版本）和 {@value #BITS_CLAIM}（Base64URL位图）
+ * 代替权限名列表, 管理员等权限较多的用户的token可缩短数百字节
+ * <p>
+ * 版本号由权限名列表的SHA-256计算, 内容相同的字典在各实例上版本号相同, 无需协调
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public final class PermissionDictionary implements Serializable {
+	
+	/**
+	 * token中字典版本的声明名
+	 */
+	public static final String VERSION_CLAIM = "pdv";
+	
+	/**
+	 * token中权限位图的声明名
+	 */
+	public static final String BITS_CLAIM = "pbs";
+	
+	/**
+	 * 版本号取SHA-256的前9字节, 即12个Base64URL字符
+	 */
+	private static final int VERSION_BYTES = 9;
+	
+	private final String version;
+	private final List<String> permissions;
+	private final Map<String, Integer> index;
+	
+	private PermissionDictionary(List<String> permissions) {
+		this.permissions = List.copyOf(permissions);
+		Map<String, Integer> index = new HashMap<>(permissions.size() * 2);
+		for (int i = 0; i < this.permissions.size(); i++) {
+			index.putIfAbsent(this.permissions.get(i), i);
+		}
+		this.index = Map.copyOf(index);
+		this.version = version(this.permissions);
+	}
+	
+	/**
+	 * 根据按id排列的权限名创建字典
+	 *
+	 * @param permissions 权限名
+	 * @return 权限字典
+	 */
+	public static PermissionDictionary of(List<String> permissions) {
+		return new PermissionDictionary(permissions);
+	}
+	
+	/**
+	 * 根据Auth服务发布的版本号和权限名创建字典, 校验版本号与内容一致
+	 *
+	 * @param version     版本号
+	 * @param permissions 权限名
+	 * @return 权限字典
+	 */
+	public static PermissionDictionary of(String version, List<String> permissions) {
+		PermissionDictionary dictionary = new PermissionDictionary(permissions);
+		if (!dictionary.version.equals(version)) {
+			throw new IllegalArgumentException("权限字典版本号与内容不一致: " + version);
+		}
+		return dictionary;
+	}
+	
+	public String getVersion() {
+		return version;
+	}
+	
+	public List<String> getPermissions() {
+		return permissions;
+	}
+	
+	public int size() {
+		return permissions.size();
+	}
+	
+	/**
+	 * 获取权限在字典中的下标
+	 *
+	 * @param permission 权限名
+	 * @return 下标, 不在字典中时返回-1
+	 */
+	public int indexOf(String permission) {
+		Integer i = index.get(permission);
+		return i != null ? i : -1;
+	}
+	
+	/**
+	 * 获取下标对应的权限名
+	 *
+	 * @param i 下标
+	 * @return 权限名
+	 */
+	public String get(int i) {
+		return permissions.get(i);
+	}
+	
+	/**
+	 * 将权限编码为位图
+	 *
+	 * @param authorities 权限名
+	 * @param unmatched   不在字典中的权限（如角色）写入该集合, 可为null
+	 * @return Base64URL编码的位图
+	 */
+	public String encode(Collection<String> authorities, Collection<String> unmatched) {
+		BitSet bits = new BitSet(permissions.size());
+		for (String authority : authorities) {
+			int i = indexOf(authority);
+			if (i >= 0) {
+				bits.set(i);
+			} else if (unmatched != null) {
+				unmatched.add(authority);
+			}
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray());
+	}
+	
+	/**
+	 * 解码位图, 超出字典范围的位被忽略
+	 *
+	 * @param encoded Base64URL编码的位图
+	 * @return 位图
+	 */
+	public BitSet decode(String encoded) {
+		BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+		if (bits.length() > permissions.size()) {
+			bits.clear(permissions.size(), bits.length());
+		}
+		return bits;
+	}
+	
+	private static String version(List<String> permissions) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String permission : permissions) {
+				digest.update(permission.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			return Base64.getUrlEncoder().withoutPadding()
+					.encodeToString(Arrays.copyOf(digest.digest(), VERSION_BYTES));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256不可用", e);
+		}
+	}
+	
+}
@@ -0,0 +1,214 @@
+package org.pms.api.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pms.api.IAuthRpcService;
+import org.pms.api.dto.PermissionDictionaryDTO;
+import org.pms.types.Response;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 权限字典后台同步器
+ * 在单个守护线程中按 interval 拉取Auth服务当前的权限字典, 版本变化时通过 {@link JwtVerifier#registerPermissionDictionary}
+ * 登记; JwtVerifier保留最近的若干个版本, 字典变化前签发、尚未过期的token仍可解码。
+ * <p>
+ * token携带签发时的字典版本, 遇到未登记的版本时JwtVerifier按该版本向Auth服务拉取（Auth服务同样保留最近的若干个版本,
+ * 本实例没有时会先重新加载）; 验签线程最多等待 {@value #UNKNOWN_VERSION_WAIT_MILLIS}ms 后重试,
+ * 在事件循环线程上不等待, 只触发拉取。并发请求共享同一次拉取, 两次由未知版本触发的拉取至少间隔
+ * {@value #UNKNOWN_VERSION_REFRESH_INTERVAL_MILLIS}ms
+ * <p>
+ * Auth服务开启位图编码（auth.token.permission-encoding=bitset）前, Consumer端需先启动该同步器
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+public class PermissionDictionaryRefresher implements AutoCloseable {
+	
+	/**
+	 * 未知版本触发拉取时验签线程的最长等待时间
+	 */
+	private static final long UNKNOWN_VERSION_WAIT_MILLIS = 2000;
+	
+	/**
+	 * 两次由未知版本触发的拉取之间的最小间隔
+	 */
+	private static final long UNKNOWN_VERSION_REFRESH_INTERVAL_MILLIS = 5000;
+	
+	private final IAuthRpcService authRpcService;
+	private final long intervalMillis;
+	private final ScheduledExecutorService scheduler;
+	
+	/**
+	 * 是否已有待执行的立即拉取, 避免大量携带未知版本的token同时触发拉取
+	 */
+	private final AtomicBoolean refreshPending = new AtomicBoolean();
+	
+	/**
+	 * 正在进行的由未知版本触发的拉取, 完成后置空
+	 */
+	private final AtomicReference<CompletableFuture<Boolean>> pendingVersionRefresh = new AtomicReference<>();
+	
+	/**
+	 * 上次由未知版本触发拉取的时间
+	 */
+	private volatile long lastVersionRefresh;
+	
+	/**
+	 * @param authRpcService Auth服务RPC客户端
+	 * @param interval       同步间隔
+	 */
+	public PermissionDictionaryRefresher(IAuthRpcService authRpcService, Duration interval) {
+		if (interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("同步间隔必须大于0");
+		}
+		this.authRpcService = authRpcService;
+		this.intervalMillis = interval.toMillis();
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "jwt-permission-dictionary-refresher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * 同步拉取一次权限字典后开始后台同步
+	 * 首次拉取失败时抛出异常, 避免服务在无法解码权限位图的情况下启动
+	 */
+	public void start() {
+		try {
+			sync();
+		} catch (Exception e) {
+			log.error("PermissionDictionaryRefresher: 拉取权限字典失败: {}", e.getMessage());
+			throw new IllegalStateException("无法加载权限字典", e);
+		}
+		JwtVerifier.setPermissionDictionaryRefresher(this);
+		scheduler.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		log.info("PermissionDictionaryRefresher: 已开始同步权限字典, 间隔 {}ms", intervalMillis);
+	}
+	
+	/**
+	 * 立即在后台拉取一次权限字典, 已有待执行的拉取时忽略
+	 */
+	public void refreshNow() {
+		if (!scheduler.isShutdown() && refreshPending.compareAndSet(false, true)) {
+			try {
+				scheduler.execute(() -> {
+					try {
+						refresh();
+					} finally {
+						refreshPending.set(false);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				refreshPending.set(false);
+			}
+		}
+	}
+	
+	/**
+	 * 遇到未登记的字典版本时按版本拉取权限字典, 由验签线程调用
+	 * 已有进行中的拉取时共享同一次拉取; 距上次由未知版本触发的拉取不足最小间隔时不再拉取;
+	 * 在事件循环线程上只触发拉取, 不等待
+	 *
+	 * @param version token中的字典版本
+	 * @return 是否在等待时间内完成了一次成功的拉取
+	 */
+	boolean refreshForUnknownVersion(String version) {
+		CompletableFuture<Boolean> future = pendingVersionRefresh.get();
+		if (future == null) {
+			long now = System.currentTimeMillis();
+			if (now - lastVersionRefresh < UNKNOWN_VERSION_REFRESH_INTERVAL_MILLIS) {
+				return false;
+			}
+			CompletableFuture<Boolean> created = new CompletableFuture<>();
+			if (pendingVersionRefresh.compareAndSet(null, created)) {
+				lastVersionRefresh = now;
+				try {
+					scheduler.execute(() -> {
+						try {
+							created.complete(refreshVersion(version));
+						} finally {
+							pendingVersionRefresh.set(null);
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					pendingVersionRefresh.set(null);
+					return false;
+				}
+				future = created;
+			} else {
+				future = pendingVersionRefresh.get();
+				if (future == null) {
+					return false;
+				}
+			}
+		}
+		if (EventLoops.inEventLoop()) {
+			return future.isDone() && future.getNow(false);
+		}
+		try {
+			return future.get(UNKNOWN_VERSION_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+	
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+	
+	private void refresh() {
+		try {
+			sync();
+		} catch (Exception e) {
+			log.warn("PermissionDictionaryRefresher: 同步权限字典失败, 继续使用当前字典: {}", e.getMessage());
+		}
+	}
+	
+	private boolean refreshVersion(String version) {
+		try {
+			Response<PermissionDictionaryDTO> response = authRpcService.getPermissionDictionary(version);
+			PermissionDictionaryDTO dto = response != null ? response.getData() : null;
+			if (dto == null || !version.equals(dto.getVersion()) || dto.getPermissions() == null) {
+				log.warn("PermissionDictionaryRefresher: Auth服务没有版本为 {} 的权限字典", version);
+				return false;
+			}
+			register(dto);
+			return true;
+		} catch (Exception e) {
+			log.warn("PermissionDictionaryRefresher: 拉取版本为 {} 的权限字典失败: {}", version, e.getMessage());
+			return false;
+		}
+	}
+	
+	private void sync() {
+		Response<PermissionDictionaryDTO> response = authRpcService.getPermissionDictionary();
+		PermissionDictionaryDTO dto = response != null ? response.getData() : null;
+		if (dto == null || dto.getVersion() == null || dto.getPermissions() == null) {
+			throw new IllegalStateException("Auth服务未返回权限字典");
+		}
+		register(dto);
+	}
+	
+	private void register(PermissionDictionaryDTO dto) {
+		if (!JwtVerifier.hasPermissionDictionary(dto.getVersion())) {
+			JwtVerifier.registerPermissionDictionary(PermissionDictionary.of(dto.getVersion(), dto.getPermissions()));
+		}
+	}
+	
+}
@@ -0,0 +1,212 @@
+package org.pms.api.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 验签公钥后台刷新器
+ * 在单个守护线程中按 interval 定时从 {@link PublicKeySource} 拉取公钥, 拉取到新公钥环时通过
+ * {@link JwtVerifier#updateKeyRing} 整体替换 volatile 引用; 验签线程只读取该引用, 不会被刷新阻塞,
+ * 也不会读到不完整的公钥集合
+ * <p>
+ * 每次的刷新间隔在 interval 上下随机浮动 jitter 比例, 避免大量Gateway/WS实例同时请求Auth服务;
+ * 拉取失败时继续使用当前公钥, 等待下次刷新
+ * <p>
+ * 验签遇到未知kid（如Auth服务刚轮换密钥）时, 验签线程触发一次立即刷新并最多等待 {@value #UNKNOWN_KEY_WAIT_MILLIS}ms
+ * 后重试; 在事件循环线程（如响应式Gateway的Netty线程）上不等待, 只触发刷新并拒绝当前token, 刷新完成后的请求即可验签。
+ * 并发请求共享同一次刷新, 两次由未知kid触发的刷新至少间隔 {@value #UNKNOWN_KEY_REFRESH_INTERVAL_MILLIS}ms,
+ * 携带伪造kid的请求不会放大为对Auth服务的请求
+ * <p>
+ * 使用示例:
+ * <pre>
+ * PublicKeyRefresher refresher = new PublicKeyRefresher(new RpcPublicKeySource(authRpcService), Duration.ofMinutes(5));
+ * refresher.start();
+ * </pre>
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+public class PublicKeyRefresher implements AutoCloseable {
+	
+	/**
+	 * 默认刷新间隔浮动比例
+	 */
+	private static final double DEFAULT_JITTER = 0.1;
+	
+	/**
+	 * 未知kid触发刷新时验签线程的最长等待时间
+	 */
+	private static final long UNKNOWN_KEY_WAIT_MILLIS = 2000;
+	
+	/**
+	 * 两次由未知kid触发的刷新之间的最小间隔
+	 */
+	private static final long UNKNOWN_KEY_REFRESH_INTERVAL_MILLIS = 5000;
+	
+	private final PublicKeySource source;
+	private final long intervalMillis;
+	private final double jitter;
+	private final ScheduledExecutorService scheduler;
+	
+	/**
+	 * 正在进行的由未知kid触发的刷新, 完成后置空
+	 */
+	private final AtomicReference<CompletableFuture<Boolean>> pendingRefresh = new AtomicReference<>();
+	
+	/**
+	 * 上次由未知kid触发刷新的时间
+	 */
+	private volatile long lastUnknownKeyRefresh;
+	
+	public PublicKeyRefresher(PublicKeySource source, Duration interval) {
+		this(source, interval, DEFAULT_JITTER);
+	}
+	
+	/**
+	 * @param source   公钥来源
+	 * @param interval 刷新间隔
+	 * @param jitter   刷新间隔浮动比例, 取值 [0, 1)
+	 */
+	public PublicKeyRefresher(PublicKeySource source, Duration interval, double jitter) {
+		if (interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("刷新间隔必须大于0");
+		}
+		if (jitter < 0 || jitter >= 1) {
+			throw new IllegalArgumentException("刷新间隔浮动比例必须在[0, 1)之间");
+		}
+		this.source = source;
+		this.intervalMillis = interval.toMillis();
+		this.jitter = jitter;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "jwt-public-key-refresher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * 同步加载一次公钥后开始后台刷新
+	 * 首次加载失败时抛出异常, 避免服务在没有公钥的情况下启动
+	 */
+	public void start() {
+		try {
+			PublicKeyRing keyRing = source.load();
+			if (keyRing != null) {
+				JwtVerifier.updateKeyRing(keyRing);
+			}
+		} catch (Exception e) {
+			log.error("PublicKeyRefresher: 从 {} 加载公钥失败: {}", source.describe(), e.getMessage());
+			throw new IllegalStateException("无法加载验签公钥", e);
+		}
+		JwtUtil.setKeyRefresher(this);
+		scheduleNext();
+		log.info("PublicKeyRefresher: 已开始从 {} 刷新公钥, 间隔 {}ms", source.describe(), intervalMillis);
+	}
+	
+	/**
+	 * 立即在后台刷新一次公钥, 例如遇到未知kid时由调用方触发
+	 */
+	public void refreshNow() {
+		if (!scheduler.isShutdown()) {
+			scheduler.execute(this::refresh);
+		}
+	}
+	
+	/**
+	 * 遇到未知kid时刷新公钥环并等待完成, 由验签线程调用
+	 * 已有进行中的刷新时等待同一次刷新; 距上次由未知kid触发的刷新不足最小间隔时不再刷新;
+	 * 在事件循环线程上只触发刷新, 不等待
+	 *
+	 * @return 是否在等待时间内完成了一次成功的刷新
+	 */
+	boolean refreshForUnknownKey() {
+		CompletableFuture<Boolean> future = pendingRefresh.get();
+		if (future == null) {
+			long now = System.currentTimeMillis();
+			if (now - lastUnknownKeyRefresh < UNKNOWN_KEY_REFRESH_INTERVAL_MILLIS) {
+				return false;
+			}
+			CompletableFuture<Boolean> created = new CompletableFuture<>();
+			if (pendingRefresh.compareAndSet(null, created)) {
+				lastUnknownKeyRefresh = now;
+				try {
+					scheduler.execute(() -> {
+						try {
+							created.complete(refresh());
+						} finally {
+							pendingRefresh.set(null);
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					pendingRefresh.set(null);
+					return false;
+				}
+				future = created;
+			} else {
+				future = pendingRefresh.get();
+				if (future == null) {
+					return false;
+				}
+			}
+		}
+		if (EventLoops.inEventLoop()) {
+			return future.isDone() && future.getNow(false);
+		}
+		try {
+			return future.get(UNKNOWN_KEY_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException | TimeoutException e) {
+			return false;
+		}
+	}
+	
+	@Override
+	public void close() {
+		JwtUtil.clearKeyRefresher(this);
+		scheduler.shutdownNow();
+	}
+	
+	private boolean refresh() {
+		try {
+			PublicKeyRing keyRing = source.load();
+			if (keyRing != null) {
+				JwtVerifier.updateKeyRing(keyRing);
+				return true;
+			}
+		} catch (Exception e) {
+			log.warn("PublicKeyRefresher: 从 {} 刷新公钥失败, 继续使用当前公钥: {}", source.describe(), e.getMessage());
+		}
+		return false;
+	}
+	
+	private void scheduleNext() {
+		long delta = (long) (intervalMillis * jitter);
+		long delay = delta > 0
+				? intervalMillis + ThreadLocalRandom.current().nextLong(-delta, delta + 1)
+				: intervalMillis;
+		scheduler.schedule(() -> {
+			try {
+				refresh();
+			} finally {
+				if (!scheduler.isShutdown()) {
+					scheduleNext();
+				}
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+	
+}
@@ -0,0 +1,153 @@
+package org.pms.api.utils;
+
+import org.pms.api.dto.PublicKeySetDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 验签公钥环（不可变）
+ * 持有当前公钥和轮换前的公钥, 按JWT头部的kid以O(1)选取验签公钥,
+ * 密钥轮换期间用旧公钥签发、尚未过期的token仍可通过验签
+ * <p>
+ * 更新公钥时整体替换公钥环引用, 验签线程无需加锁
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public final class PublicKeyRing {
+	
+	/**
+	 * kid长度, 取公钥SHA-256指纹的前16个Base64URL字符
+	 */
+	private static final int KEY_ID_LENGTH = 16;
+	
+	private final String activeKeyId;
+	private final PublicKey activeKey;
+	private final Map<String, PublicKey> keys;
+	
+	private PublicKeyRing(String activeKeyId, Map<String, PublicKey> keys) {
+		PublicKey active = keys.get(activeKeyId);
+		if (active == null) {
+			throw new IllegalArgumentException("公钥环中不存在当前公钥: " + activeKeyId);
+		}
+		this.activeKeyId = activeKeyId;
+		this.activeKey = active;
+		this.keys = Collections.unmodifiableMap(new HashMap<>(keys));
+	}
+	
+	/**
+	 * 根据单个公钥创建公钥环, kid由公钥指纹计算
+	 *
+	 * @param publicKey 公钥
+	 * @return 公钥环
+	 */
+	public static PublicKeyRing of(PublicKey publicKey) {
+		String kid = keyId(publicKey);
+		return new PublicKeyRing(kid, Map.of(kid, publicKey));
+	}
+	
+	/**
+	 * 根据多个公钥创建公钥环
+	 *
+	 * @param activeKeyId 当前公钥的kid, 用于验签未携带kid的旧token
+	 * @param keys        kid -> 公钥
+	 * @return 公钥环
+	 */
+	public static PublicKeyRing of(String activeKeyId, Map<String, PublicKey> keys) {
+		return new PublicKeyRing(activeKeyId, keys);
+	}
+	
+	/**
+	 * 根据Auth服务发布的公钥集合创建公钥环
+	 *
+	 * @param publicKeySet 公钥集合
+	 * @return 公钥环
+	 * @throws Exception 公钥解析失败时抛出异常
+	 */
+	public static PublicKeyRing of(PublicKeySetDTO publicKeySet) throws Exception {
+		Map<String, PublicKey> keys = new LinkedHashMap<>();
+		for (Map.Entry<String, String> entry : publicKeySet.getKeys().entrySet()) {
+			keys.put(entry.getKey(), RSAUtil.base642PublicKey(entry.getValue()));
+		}
+		return new PublicKeyRing(publicKeySet.getActiveKeyId(), keys);
+	}
+	
+	/**
+	 * 根据kid选取验签公钥
+	 * 未携带kid的旧token使用当前公钥; kid未知时返回null, 由调用方刷新公钥环后重试
+	 * （如Auth服务刚轮换密钥, 本地公钥环尚未包含新公钥）
+	 *
+	 * @param kid JWT头部的kid, 可为null
+	 * @return 验签公钥, kid未知时返回null
+	 */
+	public PublicKey select(String kid) {
+		if (kid == null) {
+			return activeKey;
+		}
+		return keys.get(kid);
+	}
+	
+	public String getActiveKeyId() {
+		return activeKeyId;
+	}
+	
+	public PublicKey getActiveKey() {
+		return activeKey;
+	}
+	
+	public Map<String, PublicKey> getKeys() {
+		return keys;
+	}
+	
+	/**
+	 * 计算公钥的kid: 对X.509编码的公钥做SHA-256, 取Base64URL编码的前16个字符
+	 * Auth服务签发token时使用同一算法, 保证两端kid一致
+	 *
+	 * @param publicKey 公钥
+	 * @return kid
+	 */
+	public static String keyId(PublicKey publicKey) {
+		return fingerprint(publicKey).substring(0, KEY_ID_LENGTH);
+	}
+	
+	/**
+	 * 计算公钥指纹: 对X.509编码的公钥做SHA-256, 结果为Base64URL编码（无填充）
+	 *
+	 * @param publicKey 公钥
+	 * @return 公钥指纹
+	 */
+	public static String fingerprint(PublicKey publicKey) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+			return new String(Base64.getUrlEncoder().withoutPadding().encode(digest), StandardCharsets.US_ASCII);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("当前JVM不支持SHA-256", e);
+		}
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof PublicKeyRing that)) {
+			return false;
+		}
+		return activeKeyId.equals(that.activeKeyId) && keys.equals(that.keys);
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31 * activeKeyId.hashCode() + keys.hashCode();
+	}
+	
+}
@@ -0,0 +1,32 @@
+package org.pms.api.utils;
+
+/**
+ * 验签公钥来源
+ * 由 {@link PublicKeyRefresher} 在后台定时调用, 拉取到的新公钥环通过 {@link JwtVerifier#updateKeyRing} 原子发布
+ * <p>
+ * 实现类应尽量廉价地判断公钥是否变化（如文件修改时间、公钥集合是否相同）, 未变化时返回null, 避免重复解析公钥
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public interface PublicKeySource {
+	
+	/**
+	 * 加载公钥环
+	 *
+	 * @return 公钥环, 自上次加载后未变化时返回null
+	 * @throws Exception 加载失败时抛出异常, 调用方继续使用当前公钥
+	 */
+	PublicKeyRing load() throws Exception;
+	
+	/**
+	 * 公钥来源描述, 用于日志
+	 *
+	 * @return 描述
+	 */
+	default String describe() {
+		return getClass().getSimpleName();
+	}
+	
+}
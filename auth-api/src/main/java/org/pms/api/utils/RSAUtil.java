@@ -14,6 +14,7 @@ import java.util.Base64;
 /**
  * RSA密钥工具类（公钥加载）
  * 用于Gateway和WS服务加载公钥进行JWT验签
+ * 公钥可以是RSA、EC(P-256)或Ed25519密钥, 验签算法由JWT头部的alg决定, jjwt会校验其与公钥类型是否匹配
  *
  * @author alcsyooterranf
  * @version 1.0
@@ -25,6 +26,11 @@ public class RSAUtil {
 	private static final String ALGORITHM = AuthConstants.ALGORITHM;
 	private static final String PUBLIC_KEY_FILENAME = AuthConstants.PUBLIC_KEY_FILENAME;
 	
+	/**
+	 * 依次尝试的密钥算法, 默认算法（RSA）优先, 兼容Auth服务可配置的签名算法
+	 */
+	private static final String[] KEY_ALGORITHMS = {ALGORITHM, "EC", "Ed25519"};
+	
 	/**
 	 * 加载RSA公钥（用于验签）
 	 *
@@ -35,6 +41,17 @@ public class RSAUtil {
 		return loadPublicKey(KEY_PATH + PUBLIC_KEY_FILENAME);
 	}
 	
+	/**
+	 * 从指定文件加载公钥（用于验签）
+	 *
+	 * @param fileName 公钥保存路径
+	 * @return 公钥
+	 * @throws Exception 加载失败时抛出异常
+	 */
+	public static PublicKey getPublicKey(String fileName) throws Exception {
+		return loadPublicKey(fileName);
+	}
+	
 	/**
 	 * 从文件中读取公钥
 	 *
@@ -49,17 +66,25 @@ public class RSAUtil {
 	
 	/**
 	 * 将Base64字符串转换为公钥对象
+	 * 按 KEY_ALGORITHMS 依次尝试解析X.509编码的公钥, 返回第一个解析成功的结果
 	 *
 	 * @param publicKey64 Base64编码的公钥字符串
 	 * @return 公钥对象
 	 * @throws NoSuchAlgorithmException 算法不存在
 	 * @throws InvalidKeySpecException  密钥规格无效
 	 */
-	private static PublicKey base642PublicKey(String publicKey64) throws NoSuchAlgorithmException,
+	public static PublicKey base642PublicKey(String publicKey64) throws NoSuchAlgorithmException,
 			InvalidKeySpecException {
-		KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
-		X509EncodedKeySpec keySpec = new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey64));
-		return keyFactory.generatePublic(keySpec);
+		X509EncodedKeySpec keySpec = new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey64.trim()));
+		InvalidKeySpecException lastException = null;
+		for (String algorithm : KEY_ALGORITHMS) {
+			try {
+				return KeyFactory.getInstance(algorithm).generatePublic(keySpec);
+			} catch (InvalidKeySpecException e) {
+				lastException = e;
+			}
+		}
+		throw lastException;
 	}
 	
 	/**
@@ -0,0 +1,77 @@
+package org.pms.api.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 本地accessToken撤销列表（不可变）
+ * 由 {@link RevocationRefresher} 增量同步后整体替换, 验签时在本地判断jti是否被撤销, 不访问网络;
+ * 未撤销是绝大多数情况, 列表为空时直接返回
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public final class RevocationList {
+	
+	public static final RevocationList EMPTY = new RevocationList(Map.of());
+	
+	/**
+	 * jti -> 撤销时间（毫秒）
+	 */
+	private final Map<String, Long> revoked;
+	
+	private RevocationList(Map<String, Long> revoked) {
+		this.revoked = revoked;
+	}
+	
+	/**
+	 * 判断jti是否被撤销
+	 *
+	 * @param jti token的jti
+	 * @return 是否被撤销
+	 */
+	public boolean isRevoked(String jti) {
+		return !revoked.isEmpty() && jti != null && revoked.containsKey(jti);
+	}
+	
+	public int size() {
+		return revoked.size();
+	}
+	
+	/**
+	 * 合并增量并清理已超出保留时间的条目
+	 * 撤销时间由Auth服务端的Redis时钟生成, 清理时也以服务端时钟为准, 不使用本机时间, 避免时钟偏差导致条目被提前清理
+	 *
+	 * @param added           新增的撤销条目, jti -> 撤销时间（毫秒）
+	 * @param retentionMillis 保留时间（毫秒）, 即accessToken的最长有效期
+	 * @param serverClock     服务端时钟（毫秒）, 即已知的最大撤销时间（增量游标）
+	 * @return 合并后的撤销列表, 没有变化时返回当前实例
+	 */
+	public RevocationList merge(Map<String, Long> added, long retentionMillis, long serverClock) {
+		long expiredBefore = serverClock - retentionMillis;
+		boolean changed = false;
+		for (Map.Entry<String, Long> entry : added.entrySet()) {
+			if (entry.getValue() >= expiredBefore && !revoked.containsKey(entry.getKey())) {
+				changed = true;
+				break;
+			}
+		}
+		if (!changed) {
+			for (Long revokedAt : revoked.values()) {
+				if (revokedAt < expiredBefore) {
+					changed = true;
+					break;
+				}
+			}
+		}
+		if (!changed) {
+			return this;
+		}
+		Map<String, Long> merged = new HashMap<>(revoked);
+		added.forEach(merged::putIfAbsent);
+		merged.values().removeIf(revokedAt -> revokedAt < expiredBefore);
+		return merged.isEmpty() ? EMPTY : new RevocationList(Map.copyOf(merged));
+	}
+	
+}
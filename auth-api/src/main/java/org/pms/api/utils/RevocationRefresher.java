@@ -0,0 +1,112 @@
+package org.pms.api.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pms.api.IAuthRpcService;
+import org.pms.api.dto.RevocationDeltaDTO;
+import org.pms.types.AuthConstants;
+import org.pms.types.Response;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * accessToken撤销列表后台同步器
+ * 在单个守护线程中按 interval 从Auth服务增量拉取撤销条目（只传输上次游标之后的条目）, 合并后通过
+ * {@link JwtVerifier#updateRevocations} 整体替换; 验签线程只读取本地列表, 撤销生效的延迟不超过 interval
+ * <p>
+ * 拉取失败时继续使用当前列表, 等待下次同步
+ * <p>
+ * 使用示例:
+ * <pre>
+ * RevocationRefresher refresher = new RevocationRefresher(authRpcService, Duration.ofSeconds(5));
+ * refresher.start();
+ * </pre>
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+public class RevocationRefresher implements AutoCloseable {
+	
+	/**
+	 * 撤销条目保留时间（毫秒）, 与Auth服务一致, 为accessToken的最长有效期
+	 */
+	private static final long RETENTION_MILLIS = AuthConstants.ACCESS_EXPIRATION * 1000;
+	
+	private final IAuthRpcService authRpcService;
+	private final long intervalMillis;
+	private final ScheduledExecutorService scheduler;
+	
+	/**
+	 * 增量拉取游标, 只由同步线程访问
+	 */
+	private long cursor;
+	
+	/**
+	 * @param authRpcService Auth服务RPC客户端
+	 * @param interval       同步间隔
+	 */
+	public RevocationRefresher(IAuthRpcService authRpcService, Duration interval) {
+		if (interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("同步间隔必须大于0");
+		}
+		this.authRpcService = authRpcService;
+		this.intervalMillis = interval.toMillis();
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "jwt-revocation-refresher");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * 同步拉取一次完整撤销列表后开始后台增量同步
+	 * 首次拉取失败时抛出异常, 避免服务在不知道撤销列表的情况下启动
+	 */
+	public void start() {
+		try {
+			sync();
+		} catch (Exception e) {
+			log.error("RevocationRefresher: 拉取撤销列表失败: {}", e.getMessage());
+			throw new IllegalStateException("无法加载accessToken撤销列表", e);
+		}
+		scheduler.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		log.info("RevocationRefresher: 已开始同步撤销列表, 间隔 {}ms", intervalMillis);
+	}
+	
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+	
+	private void refresh() {
+		try {
+			sync();
+		} catch (Exception e) {
+			log.warn("RevocationRefresher: 同步撤销列表失败, 继续使用当前列表: {}", e.getMessage());
+		}
+	}
+	
+	private void sync() {
+		Response<RevocationDeltaDTO> response = authRpcService.getRevocations(cursor);
+		RevocationDeltaDTO delta = response != null ? response.getData() : null;
+		if (delta == null) {
+			throw new IllegalStateException("Auth服务未返回撤销列表");
+		}
+		Map<String, Long> revoked = delta.getRevoked() != null ? delta.getRevoked() : Map.of();
+		// 以服务端游标（Redis时钟下的最大撤销时间）作为清理基准, 不受本机时钟偏差影响;
+		// 长时间没有新撤销时游标不前进, 只会多保留已过期的条目
+		long serverClock = Math.max(cursor, delta.getCursor());
+		RevocationList current = JwtVerifier.getRevocations();
+		RevocationList merged = current.merge(revoked, RETENTION_MILLIS, serverClock);
+		if (merged != current) {
+			JwtVerifier.updateRevocations(merged);
+		}
+		cursor = serverClock;
+	}
+	
+}
@@ -0,0 +1,124 @@
+package org.pms.api.utils;
+
+import org.pms.api.IAuthRpcService;
+import org.pms.api.dto.PublicKeySetDTO;
+import org.pms.types.Response;
+
+import java.lang.reflect.Method;
+
+/**
+ * 基于 {@link IAuthRpcService} 的公钥来源
+ * 通过Consumer端已有的RPC客户端轮询Auth服务的公钥集合, 集合未变化时不重新解析公钥;
+ * Auth服务尚未提供公钥集合接口时（接口返回404或客户端未实现该方法）, 回退为获取单个公钥。
+ * 超时、5xx等其他错误直接抛出, 由 {@link PublicKeyRefresher} 继续使用当前公钥环, 不会因一次失败退化为单个公钥
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class RpcPublicKeySource implements PublicKeySource {
+	
+	/**
+	 * RPC客户端异常中表示HTTP状态码的方法名（Feign: status, Spring: getRawStatusCode）
+	 */
+	private static final String[] STATUS_METHODS = {"status", "getRawStatusCode"};
+	
+	private static final int NOT_FOUND = 404;
+	
+	private final IAuthRpcService authRpcService;
+	
+	/**
+	 * 上次加载的公钥集合, 只由刷新线程访问
+	 */
+	private PublicKeySetDTO lastKeySet;
+	
+	/**
+	 * 回退为单个公钥时上次加载的Base64公钥, 只由刷新线程访问
+	 */
+	private String lastPublicKey;
+	
+	public RpcPublicKeySource(IAuthRpcService authRpcService) {
+		this.authRpcService = authRpcService;
+	}
+	
+	@Override
+	public PublicKeyRing load() throws Exception {
+		PublicKeySetDTO publicKeySet;
+		try {
+			publicKeySet = dataOf(authRpcService.getPublicKeys());
+		} catch (RuntimeException | AbstractMethodError e) {
+			if (!isEndpointMissing(e)) {
+				throw e;
+			}
+			// 旧版本Auth服务没有公钥集合接口
+			publicKeySet = null;
+		}
+		if (publicKeySet != null) {
+			if (publicKeySet.getKeys() == null || publicKeySet.getKeys().isEmpty()) {
+				throw new IllegalStateException("Auth服务返回的公钥集合为空");
+			}
+			if (publicKeySet.equals(lastKeySet)) {
+				return null;
+			}
+			PublicKeyRing keyRing = PublicKeyRing.of(publicKeySet);
+			lastKeySet = publicKeySet;
+			lastPublicKey = null;
+			return keyRing;
+		}
+		String publicKey64 = dataOf(authRpcService.getPublicKey());
+		if (publicKey64 == null) {
+			throw new IllegalStateException("Auth服务未返回公钥");
+		}
+		if (publicKey64.equals(lastPublicKey)) {
+			return null;
+		}
+		PublicKeyRing keyRing = PublicKeyRing.of(RSAUtil.base642PublicKey(publicKey64));
+		lastPublicKey = publicKey64;
+		lastKeySet = null;
+		return keyRing;
+	}
+	
+	/**
+	 * 判断异常是否表示Auth服务没有公钥集合接口
+	 * 识别客户端未实现该方法, 以及异常链中HTTP状态码为404的RPC客户端异常（Feign、RestTemplate、WebClient）;
+	 * 使用其他RPC框架时可覆盖该方法
+	 *
+	 * @param e 调用公钥集合接口时的异常
+	 * @return 是否为接口不存在
+	 */
+	protected boolean isEndpointMissing(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+			if (t instanceof UnsupportedOperationException || t instanceof AbstractMethodError) {
+				return true;
+			}
+			if (statusOf(t) == NOT_FOUND) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static int statusOf(Throwable t) {
+		for (String name : STATUS_METHODS) {
+			try {
+				Method method = t.getClass().getMethod(name);
+				if (method.getParameterCount() == 0 && method.getReturnType() == int.class) {
+					return (int) method.invoke(t);
+				}
+			} catch (ReflectiveOperationException | RuntimeException ignored) {
+				// 该异常类型没有此方法
+			}
+		}
+		return -1;
+	}
+	
+	private static <T> T dataOf(Response<T> response) {
+		return response != null ? response.getData() : null;
+	}
+	
+	@Override
+	public String describe() {
+		return "rpc:" + IAuthRpcService.class.getSimpleName();
+	}
+	
+}
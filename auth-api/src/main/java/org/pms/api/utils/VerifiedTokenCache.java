@@ -0,0 +1,199 @@
+package org.pms.api.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.pms.api.dto.VerifiedToken;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已验签token结果缓存（纯Java实现，不依赖Spring）
+ * 以token的SHA-256摘要为key缓存 VerifiedToken 验证结果，避免同一token在有效期内重复RSA验签和解析
+ * <p>
+ * - 缓存条目在token自身的exp时刻过期，不会晚于token过期时间
+ * - 容量有上限，达到上限时先清理已过期条目，仍不足时淘汰任意条目
+ * - 缓存命中时返回同一个 VerifiedToken 实例，由 JwtVerifier 复制后交给调用方
+ * - 每个条目记录写入时的代数, {@link #clear} 递增代数; 清空前开始验签、清空后才写入的结果不会被命中
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class VerifiedTokenCache {
+	
+	/**
+	 * 满容量时两次过期清理之间的最小间隔（毫秒），避免每次写入都全量扫描
+	 */
+	private static final long PURGE_INTERVAL_MILLIS = 1000L;
+	
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("当前JVM不支持SHA-256", e);
+		}
+	});
+	
+	private final int maximumSize;
+	private final ConcurrentHashMap<ByteBuffer, Entry> entries;
+	private final AtomicLong lastPurgeTime = new AtomicLong();
+	
+	/**
+	 * 当前代数, 公钥环变化时递增
+	 */
+	private final AtomicLong generation = new AtomicLong();
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	
+	/**
+	 * @param maximumSize 最大缓存条目数
+	 */
+	public VerifiedTokenCache(int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("缓存容量必须大于0");
+		}
+		this.maximumSize = maximumSize;
+		this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1024));
+	}
+	
+	/**
+	 * 获取token对应的验证结果
+	 *
+	 * @param token JWT token
+	 * @return 未命中或已过期时返回null
+	 */
+	public VerifiedToken get(String token) {
+		ByteBuffer key = digest(token);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			missCount.increment();
+			return null;
+		}
+		if (entry.expiresAt <= System.currentTimeMillis() || entry.generation != generation.get()) {
+			if (entries.remove(key, entry)) {
+				evictionCount.increment();
+			}
+			missCount.increment();
+			return null;
+		}
+		hitCount.increment();
+		return entry.verifiedToken;
+	}
+	
+	/**
+	 * 获取当前代数, 调用方在验签前读取, 写入结果时传入
+	 *
+	 * @return 当前代数
+	 */
+	public long generation() {
+		return generation.get();
+	}
+	
+	/**
+	 * 缓存token的验证结果, 条目在token的过期时间失效
+	 *
+	 * @param token         JWT token
+	 * @param verifiedToken 验证结果
+	 * @param generation    验签前读取的代数, 期间缓存被清空时不写入
+	 */
+	public void put(String token, VerifiedToken verifiedToken, long generation) {
+		long expiresAt = verifiedToken.getExpiresAt();
+		long now = System.currentTimeMillis();
+		if (expiresAt <= now || generation != this.generation.get()) {
+			return;
+		}
+		if (entries.size() >= maximumSize) {
+			makeRoom(now);
+		}
+		entries.put(digest(token), new Entry(verifiedToken, expiresAt, generation));
+	}
+	
+	/**
+	 * 清空缓存（如公钥变化时）
+	 */
+	public void clear() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+	
+	/**
+	 * 获取缓存统计信息
+	 *
+	 * @return 统计快照
+	 */
+	public Stats stats() {
+		return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size(), maximumSize);
+	}
+	
+	private void makeRoom(long now) {
+		long last = lastPurgeTime.get();
+		if (now - last >= PURGE_INTERVAL_MILLIS && lastPurgeTime.compareAndSet(last, now)) {
+			entries.forEach((key, entry) -> {
+				if (entry.expiresAt <= now && entries.remove(key, entry)) {
+					evictionCount.increment();
+				}
+			});
+		}
+		Iterator<ByteBuffer> iterator = entries.keySet().iterator();
+		while (entries.size() >= maximumSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			evictionCount.increment();
+		}
+	}
+	
+	private static ByteBuffer digest(String token) {
+		MessageDigest messageDigest = SHA256.get();
+		return ByteBuffer.wrap(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+	}
+	
+	private static final class Entry {
+		
+		private final VerifiedToken verifiedToken;
+		private final long expiresAt;
+		private final long generation;
+		
+		private Entry(VerifiedToken verifiedToken, long expiresAt, long generation) {
+			this.verifiedToken = verifiedToken;
+			this.expiresAt = expiresAt;
+			this.generation = generation;
+		}
+		
+	}
+	
+	/**
+	 * 缓存统计快照
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Stats {
+		
+		private final long hitCount;
+		private final long missCount;
+		private final long evictionCount;
+		private final int size;
+		private final int maximumSize;
+		
+		/**
+		 * 命中率
+		 *
+		 * @return 0~1之间的命中率, 无请求时返回0
+		 */
+		public double getHitRate() {
+			long total = hitCount + missCount;
+			return total == 0 ? 0D : (double) hitCount / total;
+		}
+		
+	}
+	
+}
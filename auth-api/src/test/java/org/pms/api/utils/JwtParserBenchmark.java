@@ -0,0 +1,95 @@
+package org.pms.api.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pms.api.dto.TokenType;
+import org.pms.types.AuthConstants;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每次验签都新建JwtParser与复用 {@link JwtUtil} 中只构建一次的JwtParser的吞吐量对比
+ * 分别以1、8、32个线程运行; 在IDE中运行main方法, 或执行 mvn -pl auth-api test-compile 后以test classpath运行
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParserBenchmark {
+	
+	private PublicKey publicKey;
+	private String token;
+	
+	@Setup
+	public void setUp() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		publicKey = keyPair.getPublic();
+		JwtUtil.updateKey(publicKey);
+		
+		long now = System.currentTimeMillis();
+		token = Jwts.builder()
+				.header().keyId(PublicKeyRing.keyId(publicKey)).and()
+				.claim(AuthConstants.USER_ID, 42L)
+				.claim(AuthConstants.USER_NAME, "alice")
+				.claim(AuthConstants.AUTHORITIES, List.of("user:read", "user:write", "ROLE_ADMIN"))
+				.claim(TokenType.CLAIM, TokenType.ACCESS.getCode())
+				.issuer(AuthConstants.ISS)
+				.id("jti")
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + TimeUnit.HOURS.toMillis(1)))
+				.signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+				.compact();
+	}
+	
+	/**
+	 * 优化前的做法: 每次验签都构建新的JwtParser
+	 */
+	@Benchmark
+	public Claims perCallParser() {
+		return Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token).getPayload();
+	}
+	
+	/**
+	 * 复用JwtUtil中的JwtParser, 按kid从公钥环选取公钥
+	 */
+	@Benchmark
+	public Claims cachedParser() {
+		return JwtUtil.getClaimsFromToken(token);
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : new int[]{1, 8, 32}) {
+			new Runner(new OptionsBuilder()
+					.include(JwtParserBenchmark.class.getSimpleName())
+					.threads(threads)
+					.build()).run();
+		}
+	}
+	
+}
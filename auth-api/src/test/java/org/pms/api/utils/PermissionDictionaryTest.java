@@ -0,0 +1,82 @@
+package org.pms.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 权限字典位图编解码测试
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+class PermissionDictionaryTest {
+	
+	/**
+	 * 超过64个权限, 覆盖位图跨越多个long的情况
+	 */
+	private static final int PERMISSION_COUNT = 70;
+	
+	private static List<String> permissions(int count) {
+		List<String> permissions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			permissions.add("perm:" + i);
+		}
+		return permissions;
+	}
+	
+	@Test
+	void encodeAndDecodeRoundTrip() {
+		PermissionDictionary dictionary = PermissionDictionary.of(permissions(PERMISSION_COUNT));
+		List<String> authorities = List.of("perm:0", "perm:7", "ROLE_ADMIN", "perm:64", "perm:69");
+		List<String> unmatched = new ArrayList<>();
+		
+		BitSet bits = dictionary.decode(dictionary.encode(authorities, unmatched));
+		
+		assertEquals(List.of("ROLE_ADMIN"), unmatched);
+		List<String> decoded = new ArrayList<>();
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			decoded.add(dictionary.get(i));
+		}
+		assertEquals(List.of("perm:0", "perm:7", "perm:64", "perm:69"), decoded);
+	}
+	
+	@Test
+	void encodeEmptyAuthorities() {
+		PermissionDictionary dictionary = PermissionDictionary.of(permissions(PERMISSION_COUNT));
+		
+		String encoded = dictionary.encode(List.of(), null);
+		
+		assertTrue(dictionary.decode(encoded).isEmpty());
+	}
+	
+	@Test
+	void decodeIgnoresBitsOutsideDictionary() {
+		PermissionDictionary larger = PermissionDictionary.of(permissions(PERMISSION_COUNT));
+		PermissionDictionary smaller = PermissionDictionary.of(permissions(10));
+		
+		BitSet bits = smaller.decode(larger.encode(List.of("perm:3", "perm:42"), null));
+		
+		assertEquals(1, bits.cardinality());
+		assertTrue(bits.get(3));
+	}
+	
+	@Test
+	void versionDependsOnlyOnContent() {
+		PermissionDictionary dictionary = PermissionDictionary.of(permissions(PERMISSION_COUNT));
+		
+		assertEquals(dictionary.getVersion(), PermissionDictionary.of(permissions(PERMISSION_COUNT)).getVersion());
+		assertEquals(dictionary.getVersion(),
+				PermissionDictionary.of(dictionary.getVersion(), dictionary.getPermissions()).getVersion());
+		assertThrows(IllegalArgumentException.class,
+				() -> PermissionDictionary.of(dictionary.getVersion(), permissions(PERMISSION_COUNT - 1)));
+	}
+	
+}
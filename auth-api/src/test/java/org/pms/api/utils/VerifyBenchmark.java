@@ -0,0 +1,116 @@
+package org.pms.api.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pms.api.dto.TokenType;
+import org.pms.api.dto.VerifiedToken;
+import org.pms.types.AuthConstants;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关每个请求的验签开销: 组合调用与 {@link JwtVerifier#verify} 单次验签的对比
+ * <p>
+ * 每个方法每次调用的RSA验签次数: singleParse 1次（基准单位）, legacyValidateThenAuthenticatedUser 3次
+ * （优化前validateToken内部再调用getJTIFromToken）, validateThenAuthenticatedUser 2次, verify 1次;
+ * 平均耗时约为singleParse的对应倍数。不开启验签结果缓存
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifyBenchmark {
+	
+	private String token;
+	
+	@Setup
+	public void setUp() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+		JwtVerifier.updateKey(keyPair.getPublic());
+		JwtVerifier.disableCache();
+		
+		long now = System.currentTimeMillis();
+		token = Jwts.builder()
+				.header().keyId(PublicKeyRing.keyId(keyPair.getPublic())).and()
+				.claim(AuthConstants.USER_ID, 42L)
+				.claim(AuthConstants.USER_NAME, "alice")
+				.claim(AuthConstants.AUTHORITIES, List.of("user:read", "user:write", "ROLE_ADMIN"))
+				.claim(TokenType.CLAIM, TokenType.REFRESH.getCode())
+				.issuer(AuthConstants.ISS)
+				.id("jti")
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + TimeUnit.HOURS.toMillis(1)))
+				.signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+				.compact();
+	}
+	
+	/**
+	 * 一次验签解析, 作为计算验签次数的单位
+	 */
+	@Benchmark
+	public Claims singleParse() {
+		return JwtUtil.getClaimsFromToken(token);
+	}
+	
+	/**
+	 * 优化前的组合调用: validateToken验签一次后再解析jti, getAuthenticatedUser再验签一次
+	 */
+	@Benchmark
+	public void legacyValidateThenAuthenticatedUser(Blackhole blackhole) {
+		blackhole.consume(JwtUtil.getClaimsFromToken(token));
+		blackhole.consume(JwtUtil.getJTIFromToken(token));
+		blackhole.consume(JwtVerifier.getAuthenticatedUser(token));
+	}
+	
+	/**
+	 * 当前的组合调用: validateToken和getAuthenticatedUser各验签一次
+	 */
+	@Benchmark
+	public void validateThenAuthenticatedUser(Blackhole blackhole) {
+		blackhole.consume(JwtVerifier.validateToken(token));
+		blackhole.consume(JwtVerifier.getAuthenticatedUser(token));
+	}
+	
+	/**
+	 * 单次验签同时得到jti、token类型和认证用户
+	 */
+	@Benchmark
+	public void verify(Blackhole blackhole) {
+		VerifiedToken verifiedToken = JwtVerifier.verify(token);
+		blackhole.consume(verifiedToken.getRefreshJti());
+		blackhole.consume(verifiedToken.getAuthenticatedUser());
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(VerifyBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+	
+}
@@ -1,5 +1,8 @@
 package org.pms.core.config;
 
+import org.pms.core.infrastructure.security.AdaptivePasswordEncoder;
+import org.pms.core.infrastructure.security.ServiceTokenFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,10 +10,13 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+
+import java.time.Duration;
 
 /**
  * Spring Security配置
@@ -25,9 +31,32 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+
+    /**
+     * BCrypt目标强度, 不大于0时启动时按目标耗时自动测量
+     */
+    @Value("${auth.password.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${auth.password.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${auth.password.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${auth.password.bcrypt.target-latency:PT0.1S}")
+    private Duration bcryptTargetLatency;
+
+    /**
+     * 服务间调用令牌, 为空时内部会话管理接口拒绝所有请求
+     */
+    @Value("${auth.rpc.service-token:}")
+    private String serviceToken;
 
-    public SecurityConfig(UserDetailsService userDetailsService) {
+    public SecurityConfig(UserDetailsService userDetailsService, UserDetailsPasswordService userDetailsPasswordService) {
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
     }
 
     /**
@@ -40,10 +69,17 @@ public class SecurityConfig {
             .cors(cors -> {})
             // 禁用CSRF（前后端分离项目）
             .csrf(AbstractHttpConfigurer::disable)
+            // 携带服务令牌的内部调用以SERVICE_INTERNAL权限认证
+            .addFilterBefore(new ServiceTokenFilter(serviceToken), AnonymousAuthenticationFilter.class)
             // 配置请求授权
             .authorizeHttpRequests(auth -> auth
-                // 放行登录、刷新、测试接口、公钥接口（HTTP和RPC）
-                .requestMatchers("/auth/login", "/auth/refresh", "/auth/success", "/auth/publicKey", "/rpc/auth/**").permitAll()
+                // 放行登录、刷新、登出、测试接口、公钥接口, 登出接口自行验签
+                .requestMatchers("/auth/login", "/auth/refresh", "/auth/logout", "/auth/success", "/auth/publicKey").permitAll()
+                // 放行只读RPC接口: 公钥、JWKS、撤销列表、权限字典
+                .requestMatchers("/rpc/auth/publicKey", "/rpc/auth/checkPublicKey", "/rpc/auth/publicKeys", "/rpc/auth/jwks",
+                        "/rpc/auth/revocations", "/rpc/auth/permissionDictionary").permitAll()
+                // 撤销、列出用户会话只允许携带服务令牌的内部调用
+                .requestMatchers("/rpc/auth/sessions/**").hasAuthority(ServiceTokenFilter.SERVICE_AUTHORITY)
                 // 放行 actuator 健康检查端点
                 .requestMatchers("/actuator/**").permitAll()
                 // 放行error页面
@@ -63,15 +99,18 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        // 登录成功后按目标强度重新哈希并写回
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider::authenticate;
     }
 
     /**
      * 密码加密器
+     * BCrypt强度可配置或自动测量, 已有哈希在登录成功后逐步迁移到目标强度
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new AdaptivePasswordEncoder(bcryptStrength, bcryptMinStrength, bcryptMaxStrength, bcryptTargetLatency);
     }
 
 }
@@ -25,6 +25,7 @@ public class UserAggregate implements Serializable {
     private String username;
     private transient String password;
     private String roleName;
+    private List<Long> roleIds;
     private List<String> permissions;
 
 }
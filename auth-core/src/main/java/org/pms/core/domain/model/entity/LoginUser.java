@@ -76,7 +76,7 @@ public class LoginUser implements UserDetails {
 	
 	@Override
 	public boolean isAccountNonLocked() {
-		return this.accountNonExpired;
+		return this.accountNonLocked;
 	}
 	
 	@Override
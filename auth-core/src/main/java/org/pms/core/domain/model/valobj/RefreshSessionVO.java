@@ -0,0 +1,32 @@
+package org.pms.core.domain.model.valobj;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * refreshToken会话记录
+ * Redis中只保存该记录而非完整的refreshToken, refreshToken本身由签名保证完整性
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Data
+@Builder
+public class RefreshSessionVO {
+
+    /**
+     * refreshToken的jti
+     */
+    private String jti;
+    private Long userId;
+    /**
+     * 签发时间, 秒级时间戳
+     */
+    private long issuedAt;
+    /**
+     * 设备标识, 可为空
+     */
+    private String device;
+
+}
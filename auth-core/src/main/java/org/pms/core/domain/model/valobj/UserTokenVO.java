@@ -1,5 +1,6 @@
 package org.pms.core.domain.model.valobj;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,10 +9,18 @@ import lombok.Data;
  */
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserTokenVO {
 
     private String accessToken;
     private String refreshToken;
+    /**
+     * Base64编码的公钥, auth.token.key-delivery 为 kid 时不返回
+     */
     private String publicKey64;
+    /**
+     * 签发token所用密钥的kid, 客户端可据此从JWKS中选取公钥
+     */
+    private String keyId;
 
 }
@@ -1,8 +1,12 @@
 package org.pms.core.domain.repository;
 
 import org.pms.core.domain.model.entity.LoginUser;
+import org.pms.core.domain.model.valobj.RefreshSessionVO;
 import org.pms.core.domain.model.valobj.UserTokenVO;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author alcsyooterranf
  */
@@ -10,6 +14,67 @@ public interface IAuthRepository {
 
     void saveUserToken(LoginUser user);
 
-    void updateUserToken(UserTokenVO tokenVO);
+    /**
+     * 签发token并保存refreshToken会话
+     *
+     * @param user   登录用户, 签发的token写回tokenVO
+     * @param device 设备标识, 可为空
+     */
+    void saveUserToken(LoginUser user, String device);
+
+    /**
+     * 根据refreshToken刷新token
+     *
+     * @param tokenVO tokenVO, 刷新后的token写回
+     * @return 刷新结果对应的refreshToken会话jti, 开启轮换时为继任会话的jti
+     */
+    String updateUserToken(UserTokenVO tokenVO);
+
+    /**
+     * 判断refreshToken会话是否仍然有效, 登出或撤销全部会话后返回false
+     *
+     * @param jti refreshToken的jti
+     * @return 会话是否存在
+     */
+    boolean isRefreshSessionActive(String jti);
+
+    /**
+     * 撤销accessToken
+     *
+     * @param accessToken accessToken
+     */
+    void revokeAccessToken(String accessToken);
+
+    /**
+     * 删除refreshToken会话
+     *
+     * @param refreshToken refreshToken
+     * @return 是否删除了会话
+     */
+    boolean removeRefreshToken(String refreshToken);
+
+    /**
+     * 增量获取accessToken撤销条目
+     *
+     * @param cursor 游标, 首次传0
+     * @return jti -> 撤销时间（毫秒）
+     */
+    Map<String, Long> getRevocationsSince(long cursor);
+
+    /**
+     * 撤销用户的全部会话, 如修改密码、锁定账号后调用
+     *
+     * @param userId 用户ID
+     * @return 撤销的会话数
+     */
+    int revokeAllSessions(Long userId);
+
+    /**
+     * 列出用户当前的会话
+     *
+     * @param userId 用户ID
+     * @return 会话列表, 按签发时间从新到旧排列
+     */
+    List<RefreshSessionVO> listSessions(Long userId);
 
 }
@@ -1,9 +1,8 @@
 package org.pms.core.domain.repository;
 
+import org.pms.core.domain.model.entity.LoginUser;
 import org.pms.core.domain.model.entity.UserEntity;
 
-import java.util.List;
-
 /**
  * @author alcsyooterranf
  */
@@ -11,8 +10,30 @@ public interface IUserRepository {
 
     UserEntity getUserEntityByUsername(String username);
 
-    List<String> queryAuthoritiesByName(String name);
+    /**
+     * 一次查询用户、角色和权限, 组装为LoginUser
+     *
+     * @param username 用户名
+     * @return LoginUser, 用户不存在时返回null
+     */
+    LoginUser queryLoginUserByName(String username);
+
+    /**
+     * 查询可登录用户的密码哈希
+     *
+     * @param username 用户名
+     * @return 密码哈希, 用户不存在、已锁定或已删除时返回null
+     */
+    String queryPasswordByName(String username);
+
+    /**
+     * 按用户id查询用户名, 不区分锁定和删除状态
+     *
+     * @param userId 用户id
+     * @return 用户名, 用户不存在时返回null
+     */
+    String queryUsernameById(Long userId);
 
-    String queryRoleByName(String username);
+    void updatePasswordByName(String username, String password);
 
 }
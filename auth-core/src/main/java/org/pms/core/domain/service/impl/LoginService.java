@@ -1,12 +1,18 @@
 package org.pms.core.domain.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.pms.core.domain.model.valobj.UserTokenVO;
 import org.pms.core.domain.repository.IAuthRepository;
 import org.pms.core.domain.service.ILoginService;
-import org.pms.core.infrastructure.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
 /**
  * @author alcsyooterranf
  */
@@ -16,24 +22,71 @@ public class LoginService implements ILoginService {
 	
 	private final IAuthRepository authRepository;
 	
-	public LoginService(IAuthRepository authRepository) {
+	/**
+	 * 最近的刷新结果: refreshToken -> 刷新结果
+	 * 同一refreshToken的并发刷新只计算一次（验签、查询Redis、签名）, 其余请求等待并共享结果;
+	 * 计算完成后的 coalesce-window 内再次刷新直接返回同一结果。失败不缓存, 下次请求重新计算。
+	 * 以token本身为key, 无需先验签解析出jti; window为0时关闭
+	 * <p>
+	 * 返回缓存结果前检查其对应的refreshToken会话仍然存在, 登出或撤销全部会话（可能发生在其他实例）后不再返回,
+	 * 改为重新计算并按正常流程拒绝
+	 */
+	private final Cache<String, RecentRefresh> recentRefreshes;
+	
+	public LoginService(IAuthRepository authRepository,
+						@Value("${auth.token.refresh.coalesce-window:PT2S}") Duration coalesceWindow,
+						@Value("${auth.token.refresh.coalesce-maximum-size:10000}") long coalesceMaximumSize) {
 		this.authRepository = authRepository;
+		this.recentRefreshes = coalesceWindow.isZero() || coalesceWindow.isNegative()
+				? null
+				: CacheBuilder.newBuilder()
+				.expireAfterWrite(coalesceWindow)
+				.maximumSize(coalesceMaximumSize)
+				.build();
 	}
 	
 	/**
 	 * 根据refreshToken刷新accessToken
+	 * 返回的UserTokenVO可能被同时刷新的请求共享, 调用方不应修改
 	 *
 	 * @param refreshToken 刷新token
 	 * @return accessToken
 	 */
 	@Override
 	public UserTokenVO doRefresh(String refreshToken) {
+		if (recentRefreshes == null) {
+			return refresh(refreshToken).tokenVO();
+		}
+		RecentRefresh[] computed = new RecentRefresh[1];
+		RecentRefresh recent;
+		try {
+			recent = recentRefreshes.get(refreshToken, () -> computed[0] = refresh(refreshToken));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		if (recent != computed[0] && !authRepository.isRefreshSessionActive(recent.jti())) {
+			// 结果计算后会话已被删除, 丢弃缓存结果并按正常流程重新刷新
+			recentRefreshes.asMap().remove(refreshToken, recent);
+			recent = refresh(refreshToken);
+		}
+		return recent.tokenVO();
+	}
+	
+	private RecentRefresh refresh(String refreshToken) {
 		UserTokenVO userTokenVO = UserTokenVO.builder()
 				.refreshToken(refreshToken)
-				.publicKey64(JwtUtil.getPublicKeyStr())
 				.build();
-		authRepository.updateUserToken(userTokenVO);
-		return userTokenVO;
+		String jti = authRepository.updateUserToken(userTokenVO);
+		return new RecentRefresh(userTokenVO, jti);
+	}
+	
+	/**
+	 * 刷新结果及其对应的refreshToken会话jti
+	 */
+	private record RecentRefresh(UserTokenVO tokenVO, String jti) {
 	}
 	
 }
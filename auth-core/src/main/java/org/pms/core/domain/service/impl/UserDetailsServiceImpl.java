@@ -1,11 +1,10 @@
 package org.pms.core.domain.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
-import org.pms.core.domain.model.aggregate.UserAggregate;
 import org.pms.core.domain.model.entity.LoginUser;
-import org.pms.core.domain.model.entity.UserEntity;
 import org.pms.core.domain.repository.IUserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,12 +13,13 @@ import java.util.Objects;
 
 /**
  * UserDetails实现，负责用户认证
+ * 直接查询数据库, 登录时经由 CachingUserDetailsService 缓存调用
  *
  * @author alcsyooterranf
  */
 @Slf4j
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 	
 	private final IUserRepository userRepository;
 	
@@ -30,28 +30,31 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 	// 从数据库中查询用户信息
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		// 1. 从数据库中查询用户信息
-		UserEntity userEntity = userRepository.getUserEntityByUsername(username);
-		if (Objects.isNull(userEntity)) {
+		// 一次查询用户信息、角色和权限, 并封装成LoginUser对象
+		LoginUser loginUser = userRepository.queryLoginUserByName(username);
+		if (Objects.isNull(loginUser)) {
 			log.error("用户不存在");
-			throw new RuntimeException("用户不存在");
+			throw new UsernameNotFoundException("用户不存在");
 		}
-		// 2. 将用户信息封装成UserAggregate对象
-		UserAggregate userAggregate = UserAggregate.builder()
-				.id(userEntity.getId())
-				.username(userEntity.getUsername())
-				.password(userEntity.getPassword())
-				.roleName(userRepository.queryRoleByName(username))
-				.permissions(userRepository.queryAuthoritiesByName(username))
-				.build();
-		// 3. 将UserAggregate对象封装成LoginUser对象
-		LoginUser loginUser = LoginUser.builder()
-				.userAggregate(userAggregate)
-				.accountNonLocked(!userEntity.getLocked())
-				.accountNonExpired(!userEntity.getRemoved())
-				.build();
 		log.debug("load UserDetails(LoginUser): {}", loginUser);
 		return loginUser;
 	}
 	
+	/**
+	 * 登录成功后, 若密码哈希强度与目标强度不一致, 由DaoAuthenticationProvider调用此方法写回重新计算的哈希
+	 *
+	 * @param user        已认证的用户
+	 * @param newPassword 新的密码哈希
+	 * @return 更新密码后的用户
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		userRepository.updatePasswordByName(user.getUsername(), newPassword);
+		log.info("密码哈希已按目标强度重新计算, username: {}", user.getUsername());
+		if (user instanceof LoginUser loginUser) {
+			loginUser.getUserAggregate().setPassword(newPassword);
+		}
+		return user;
+	}
+	
 }
@@ -0,0 +1,304 @@
+package org.pms.core.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.pms.core.domain.model.aggregate.UserAggregate;
+import org.pms.core.domain.model.entity.LoginUser;
+import org.pms.core.domain.repository.IUserRepository;
+import org.pms.core.domain.service.impl.UserDetailsServiceImpl;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 带两级缓存的UserDetailsService
+ * 包装 {@link UserDetailsServiceImpl}, 登录时依次查询本地缓存、Redis缓存和数据库:
+ * <p>
+ * - 本地缓存（Guava）: 有效期短, 同一用户名的并发未命中只会回源一次
+ * - Redis缓存: 各实例共享, 以JSON字符串保存不含密码哈希的用户快照, 命中后只按用户名查询密码哈希, 省去用户和角色的关联查询
+ * - 不存在的用户名同样缓存（有效期更短）, 避免用随机用户名击穿到数据库; 已锁定和已删除的用户同样视为不存在
+ * <p>
+ * 密码哈希只保存在本实例内存中, 不写入共享的Redis。缓存的是不可变的用户快照, 每次调用都重新构建LoginUser,
+ * 登录流程对LoginUser的修改不会污染缓存; 权限不进入缓存, 由角色id从 {@link RolePermissionCache} 获取, 角色权限变化无需清理用户缓存
+ * <p>
+ * Redis缓存带版本号: 失效时递增版本号并删除快照, 回源结果只在版本号未变化时写入, 加载期间发生的失效不会被旧快照覆盖
+ * <p>
+ * 用户被锁定、解锁、删除或修改密码后必须清除缓存: 用户服务调用撤销会话的RPC接口时会同时清除, 也可由其他服务向
+ * {@value #INVALIDATE_CHANNEL} 发布用户名; 各实例收到消息后清除本地缓存和Redis缓存。未发送失效消息时, 账号状态最迟在缓存有效期后生效
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "auth.cache.user", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachingUserDetailsService implements UserDetailsService, UserDetailsPasswordService, InitializingBean {
+	
+	public static final String KEY_PREFIX = "auth:user:";
+	public static final String INVALIDATE_CHANNEL = "auth:user:invalidate";
+	public static final String VERSION_PREFIX = "auth:user:version:";
+	
+	/**
+	 * Redis中不存在用户的占位值
+	 */
+	private static final String ABSENT = "";
+	
+	/**
+	 * 回源期间版本号发生变化时的最大重试次数
+	 */
+	private static final int MAX_LOAD_ATTEMPTS = 2;
+	
+	/**
+	 * 版本号未变化时才写入快照
+	 * KEYS[1]: 快照key, KEYS[2]: 版本号key; ARGV[1]: 回源前读取的版本号, ARGV[2]: 快照, ARGV[3]: 有效期（毫秒）
+	 */
+	private static final String PUBLISH_LUA = """
+			if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+			    return 0
+			end
+			redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+			return 1
+			""";
+	
+	/**
+	 * 递增版本号并删除快照
+	 * KEYS[1]: 快照key, KEYS[2]: 版本号key; ARGV[1]: 版本号有效期（毫秒）, 不短于快照有效期
+	 */
+	private static final String EVICT_LUA = """
+			redis.call('INCR', KEYS[2])
+			redis.call('PEXPIRE', KEYS[2], ARGV[1])
+			redis.call('DEL', KEYS[1])
+			return 1
+			""";
+	
+	private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>(PUBLISH_LUA, Long.class);
+	private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(EVICT_LUA, Long.class);
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	
+	private final UserDetailsServiceImpl delegate;
+	private final IUserRepository userRepository;
+	private final RolePermissionCache rolePermissionCache;
+	private final StringRedisTemplate stringRedisTemplate;
+	private final RedisMessageListenerContainer listenerContainer;
+	private final Cache<String, Optional<CachedUser>> nearCache;
+	private final Duration redisTtl;
+	private final Duration negativeTtl;
+	
+	public CachingUserDetailsService(UserDetailsServiceImpl delegate,
+									 IUserRepository userRepository,
+									 RolePermissionCache rolePermissionCache,
+									 StringRedisTemplate stringRedisTemplate,
+									 RedisMessageListenerContainer listenerContainer,
+									 @Value("${auth.cache.user.near-ttl:PT30S}") Duration nearTtl,
+									 @Value("${auth.cache.user.near-maximum-size:10000}") long nearMaximumSize,
+									 @Value("${auth.cache.user.redis-ttl:PT5M}") Duration redisTtl,
+									 @Value("${auth.cache.user.negative-ttl:PT1M}") Duration negativeTtl) {
+		this.delegate = delegate;
+		this.userRepository = userRepository;
+		this.rolePermissionCache = rolePermissionCache;
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.listenerContainer = listenerContainer;
+		this.nearCache = CacheBuilder.newBuilder()
+				.expireAfterWrite(nearTtl)
+				.maximumSize(nearMaximumSize)
+				.build();
+		this.redisTtl = redisTtl;
+		this.negativeTtl = negativeTtl;
+	}
+	
+	@Override
+	public void afterPropertiesSet() {
+		listenerContainer.addMessageListener((message, pattern) -> {
+			String username = new String(message.getBody(), StandardCharsets.UTF_8);
+			nearCache.invalidate(username);
+			evictFromRedis(username);
+			log.debug("用户缓存已失效, username: {}", username);
+		}, new ChannelTopic(INVALIDATE_CHANNEL));
+	}
+	
+	@Override
+	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		Optional<CachedUser> cachedUser;
+		try {
+			cachedUser = nearCache.get(username, () -> loadFromRedisOrDelegate(username));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		return cachedUser
+				.map(this::toLoginUser)
+				.orElseThrow(() -> new UsernameNotFoundException("用户不存在"));
+	}
+	
+	/**
+	 * 写回重新计算的密码哈希后清除用户缓存
+	 *
+	 * @param user        已认证的用户
+	 * @param newPassword 新的密码哈希
+	 * @return 更新密码后的用户
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		UserDetails updated = delegate.updatePassword(user, newPassword);
+		evict(user.getUsername());
+		return updated;
+	}
+	
+	/**
+	 * 清除用户缓存并通知所有实例
+	 * 用户被锁定、解锁、删除或修改密码后调用; 本实例同样会收到失效消息, 发布后再次清除本地缓存
+	 *
+	 * @param username 用户名
+	 */
+	public void evict(String username) {
+		nearCache.invalidate(username);
+		evictFromRedis(username);
+		try {
+			stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, username);
+		} catch (Exception e) {
+			log.warn("发布用户缓存失效消息失败, username: {}, error: {}", username, e.getMessage());
+		}
+	}
+	
+	private Optional<CachedUser> loadFromRedisOrDelegate(String username) {
+		String key = KEY_PREFIX + username;
+		try {
+			String json = stringRedisTemplate.opsForValue().get(key);
+			if (json != null) {
+				return ABSENT.equals(json) ? Optional.empty() : withPassword(OBJECT_MAPPER.readValue(json, UserProfile.class));
+			}
+		} catch (Exception e) {
+			log.warn("读取Redis用户缓存失败, 回源数据库, username: {}, error: {}", username, e.getMessage());
+		}
+		
+		Optional<CachedUser> loaded = Optional.empty();
+		for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+			String version = readVersion(username);
+			loaded = loadFromDelegate(username);
+			// 版本号读取失败时不写入Redis; 回源期间用户被失效时重新回源, 不使用旧快照
+			if (version == null || publish(username, version, loaded)) {
+				break;
+			}
+		}
+		return loaded;
+	}
+	
+	private Optional<CachedUser> loadFromDelegate(String username) {
+		try {
+			LoginUser loginUser = (LoginUser) delegate.loadUserByUsername(username);
+			return Optional.of(new CachedUser(UserProfile.of(loginUser), loginUser.getPassword()));
+		} catch (UsernameNotFoundException e) {
+			return Optional.empty();
+		}
+	}
+	
+	/**
+	 * 由Redis中的用户快照补全密码哈希
+	 * 密码哈希不进入Redis, 按用户名单独查询; 用户已锁定或已删除时视为不存在
+	 */
+	private Optional<CachedUser> withPassword(UserProfile profile) {
+		String password = userRepository.queryPasswordByName(profile.username());
+		return password != null ? Optional.of(new CachedUser(profile, password)) : Optional.empty();
+	}
+	
+	private String readVersion(String username) {
+		try {
+			String version = stringRedisTemplate.opsForValue().get(VERSION_PREFIX + username);
+			return version != null ? version : "0";
+		} catch (Exception e) {
+			log.warn("读取Redis用户缓存版本失败, username: {}, error: {}", username, e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * 版本号未变化时写入快照
+	 *
+	 * @return 是否写入; 写入失败时返回true, 不再重试
+	 */
+	private boolean publish(String username, String version, Optional<CachedUser> loaded) {
+		try {
+			String value = loaded.isPresent() ? OBJECT_MAPPER.writeValueAsString(loaded.get().profile()) : ABSENT;
+			long ttl = (loaded.isPresent() ? redisTtl : negativeTtl).toMillis();
+			Long published = stringRedisTemplate.execute(PUBLISH_SCRIPT, List.of(KEY_PREFIX + username, VERSION_PREFIX + username),
+					version, value, String.valueOf(ttl));
+			return published != null && published == 1L;
+		} catch (Exception e) {
+			log.warn("写入Redis用户缓存失败, username: {}, error: {}", username, e.getMessage());
+			return true;
+		}
+	}
+	
+	private void evictFromRedis(String username) {
+		try {
+			stringRedisTemplate.execute(EVICT_SCRIPT, List.of(KEY_PREFIX + username, VERSION_PREFIX + username),
+					String.valueOf(Math.max(redisTtl.toMillis(), negativeTtl.toMillis())));
+		} catch (Exception e) {
+			log.warn("删除Redis用户缓存失败, username: {}, error: {}", username, e.getMessage());
+		}
+	}
+	
+	private LoginUser toLoginUser(CachedUser cachedUser) {
+		UserProfile profile = cachedUser.profile();
+		UserAggregate userAggregate = UserAggregate.builder()
+				.id(profile.id())
+				.username(profile.username())
+				.password(cachedUser.password())
+				.roleName(profile.roleName())
+				.roleIds(profile.roleIds())
+				.permissions(rolePermissionCache.getPermissions(profile.roleIds()))
+				.build();
+		return LoginUser.builder()
+				.userAggregate(userAggregate)
+				.accountNonLocked(profile.accountNonLocked())
+				.accountNonExpired(profile.accountNonExpired())
+				.build();
+	}
+	
+	/**
+	 * 写入Redis的用户快照（不可变）, 不含密码哈希
+	 */
+	record UserProfile(Long id, String username, String roleName, List<Long> roleIds,
+					   boolean accountNonLocked, boolean accountNonExpired) {
+		
+		static UserProfile of(LoginUser loginUser) {
+			UserAggregate userAggregate = loginUser.getUserAggregate();
+			List<Long> roleIds = userAggregate.getRoleIds() != null ? List.copyOf(userAggregate.getRoleIds()) : List.of();
+			return new UserProfile(userAggregate.getId(), userAggregate.getUsername(), userAggregate.getRoleName(),
+					roleIds, loginUser.isAccountNonLocked(), loginUser.isAccountNonExpired());
+		}
+		
+	}
+	
+	/**
+	 * 本地缓存的用户快照（不可变）, 密码哈希只保存在本地
+	 */
+	record CachedUser(UserProfile profile, String password) {
+	}
+	
+}
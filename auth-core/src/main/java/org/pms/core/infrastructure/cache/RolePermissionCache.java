@@ -0,0 +1,246 @@
+package org.pms.core.infrastructure.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pms.api.utils.PermissionDictionary;
+import org.pms.core.infrastructure.mapper.IUserMapper;
+import org.pms.core.infrastructure.mapper.po.RolePermissionPO;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 角色权限缓存: 角色id -> 不可变权限列表
+ * 角色与权限的对应关系很少变化且被大量用户共享, 启动时一次性批量加载, 登录时按用户的角色id直接取权限,
+ * 不再关联 r_role_permission 和 r_permission
+ * <p>
+ * 修改角色权限后需递增Redis中的版本号（{@link #bumpVersion} 或直接 INCR {@value #VERSION_KEY}）,
+ * 各实例定时检查版本号, 变化时重新全量加载; 缓存中没有的角色（如新建角色）按需从数据库加载
+ * <p>
+ * 全量加载时同时构建权限字典（按权限id排序的全部权限名）, 供accessToken以位图编码权限;
+ * 保留最近 {@value #MAX_DICTIONARIES} 个版本的字典, Consumer端可按token携带的版本拉取。
+ * 其他实例已按新字典签发token而本实例尚未检查到版本号变化时, 按版本查询会触发一次重新加载,
+ * 两次重新加载至少间隔 {@value #ON_DEMAND_RELOAD_INTERVAL_MILLIS}ms
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+@Component
+public class RolePermissionCache implements InitializingBean {
+	
+	/**
+	 * 角色权限版本号, 以字符串形式保存, 便于其他服务和运维直接INCR
+	 */
+	public static final String VERSION_KEY = "auth:role_permission:version";
+	
+	/**
+	 * 保留的权限字典版本数, 与Consumer端 JwtVerifier 保留的数量一致
+	 */
+	private static final int MAX_DICTIONARIES = 4;
+	
+	/**
+	 * 按版本查询未命中时, 两次重新加载之间的最小间隔
+	 */
+	private static final long ON_DEMAND_RELOAD_INTERVAL_MILLIS = 5000;
+	
+	private final IUserMapper userMapper;
+	private final StringRedisTemplate stringRedisTemplate;
+	
+	/**
+	 * 角色id -> 权限列表, 整体替换, 读取无需加锁
+	 */
+	private volatile Map<Long, List<String>> permissionsByRole = Map.of();
+	
+	/**
+	 * 权限字典, 随角色权限一起全量加载
+	 */
+	private volatile PermissionDictionary dictionary = PermissionDictionary.of(List.of());
+	
+	/**
+	 * 字典版本 -> 权限字典, 按加载顺序排列, 整体替换
+	 */
+	private volatile Map<String, PermissionDictionary> dictionaries = Map.of();
+	
+	/**
+	 * 上次因按版本查询未命中而重新加载的时间
+	 */
+	private volatile long lastOnDemandReload;
+	
+	/**
+	 * 当前缓存对应的版本号, 只由加载方法修改
+	 */
+	private volatile String version;
+	
+	/**
+	 * 加载锁, 加载时会查询数据库, 使用ReentrantLock而非synchronized, 避免在虚拟线程上钉住承载线程
+	 */
+	private final ReentrantLock loadLock = new ReentrantLock();
+	
+	public RolePermissionCache(IUserMapper userMapper, StringRedisTemplate stringRedisTemplate) {
+		this.userMapper = userMapper;
+		this.stringRedisTemplate = stringRedisTemplate;
+	}
+	
+	@Override
+	public void afterPropertiesSet() {
+		reload(readVersion());
+	}
+	
+	/**
+	 * 根据角色id获取权限列表
+	 * 只有一个角色时直接返回缓存中的列表, 多个角色时合并去重
+	 *
+	 * @param roleIds 角色id
+	 * @return 不可变权限列表
+	 */
+	public List<String> getPermissions(Collection<Long> roleIds) {
+		if (roleIds == null || roleIds.isEmpty()) {
+			return List.of();
+		}
+		if (roleIds.size() == 1) {
+			return getPermissions(roleIds.iterator().next());
+		}
+		Set<String> permissions = new LinkedHashSet<>();
+		for (Long roleId : roleIds) {
+			permissions.addAll(getPermissions(roleId));
+		}
+		return List.copyOf(permissions);
+	}
+	
+	/**
+	 * 根据角色id获取权限列表, 缓存中没有时从数据库加载
+	 *
+	 * @param roleId 角色id
+	 * @return 不可变权限列表
+	 */
+	public List<String> getPermissions(Long roleId) {
+		if (roleId == null) {
+			return List.of();
+		}
+		List<String> permissions = permissionsByRole.get(roleId);
+		return permissions != null ? permissions : loadRole(roleId);
+	}
+	
+	/**
+	 * 获取当前的权限字典
+	 * 新增的权限在下次全量加载前不在字典中, 签发token时以权限名写入
+	 *
+	 * @return 权限字典
+	 */
+	public PermissionDictionary getDictionary() {
+		return dictionary;
+	}
+	
+	/**
+	 * 获取指定版本的权限字典
+	 * 未保留该版本时重新加载一次, 其他实例可能已按数据库中的新权限签发token
+	 *
+	 * @param dictionaryVersion 字典版本
+	 * @return 权限字典, 不存在时返回null
+	 */
+	public PermissionDictionary getDictionary(String dictionaryVersion) {
+		PermissionDictionary found = dictionaries.get(dictionaryVersion);
+		if (found != null) {
+			return found;
+		}
+		long now = System.currentTimeMillis();
+		if (now - lastOnDemandReload < ON_DEMAND_RELOAD_INTERVAL_MILLIS || !loadLock.tryLock()) {
+			return null;
+		}
+		try {
+			if (now - lastOnDemandReload < ON_DEMAND_RELOAD_INTERVAL_MILLIS) {
+				return dictionaries.get(dictionaryVersion);
+			}
+			lastOnDemandReload = now;
+			log.info("未保留权限字典版本 {}, 重新加载", dictionaryVersion);
+			reload(readVersion());
+		} finally {
+			loadLock.unlock();
+		}
+		return dictionaries.get(dictionaryVersion);
+	}
+	
+	/**
+	 * 递增版本号并重新加载本实例的缓存, 其他实例在下次检查时重新加载
+	 * 供修改角色权限后调用
+	 */
+	public void bumpVersion() {
+		Long next = stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+		reload(String.valueOf(next));
+	}
+	
+	/**
+	 * 检查版本号, 变化时重新全量加载
+	 */
+	@Scheduled(initialDelayString = "${auth.cache.role-permission.check-interval:PT30S}",
+			fixedDelayString = "${auth.cache.role-permission.check-interval:PT30S}")
+	public void refreshIfChanged() {
+		String current = readVersion();
+		if (!Objects.equals(current, version)) {
+			log.info("角色权限版本号变化: {} -> {}, 重新加载", version, current);
+			reload(current);
+		}
+	}
+	
+	private void reload(String newVersion) {
+		loadLock.lock();
+		try {
+			Map<Long, List<String>> grouped = new HashMap<>();
+			for (RolePermissionPO po : userMapper.selectAllRolePermissions()) {
+				grouped.computeIfAbsent(po.getRoleId(), k -> new ArrayList<>()).add(po.getPermissionName());
+			}
+			Map<Long, List<String>> loaded = new HashMap<>(grouped.size());
+			grouped.forEach((roleId, permissions) -> loaded.put(roleId, List.copyOf(permissions)));
+			PermissionDictionary loadedDictionary = PermissionDictionary.of(userMapper.selectAllPermissionNames());
+			Map<String, PermissionDictionary> retained = new LinkedHashMap<>(dictionaries);
+			retained.remove(loadedDictionary.getVersion());
+			retained.put(loadedDictionary.getVersion(), loadedDictionary);
+			while (retained.size() > MAX_DICTIONARIES) {
+				retained.remove(retained.keySet().iterator().next());
+			}
+			this.permissionsByRole = Collections.unmodifiableMap(loaded);
+			this.dictionary = loadedDictionary;
+			this.dictionaries = Collections.unmodifiableMap(retained);
+			this.version = newVersion;
+			log.info("角色权限缓存加载完成, 角色数: {}, 版本号: {}, 权限字典版本: {}", loaded.size(), newVersion,
+					loadedDictionary.getVersion());
+		} finally {
+			loadLock.unlock();
+		}
+	}
+	
+	private List<String> loadRole(Long roleId) {
+		loadLock.lock();
+		try {
+			List<String> cached = permissionsByRole.get(roleId);
+			if (cached != null) {
+				return cached;
+			}
+			List<String> permissions = List.copyOf(userMapper.selectPermissionsByRoleId(roleId));
+			Map<Long, List<String>> copy = new HashMap<>(permissionsByRole);
+			copy.put(roleId, permissions);
+			this.permissionsByRole = Collections.unmodifiableMap(copy);
+			return permissions;
+		} finally {
+			loadLock.unlock();
+		}
+	}
+	
+	/**
+	 * 读取版本号, Redis不可用时返回当前版本号, 继续使用已有缓存
+	 */
+	private String readVersion() {
+		try {
+			return stringRedisTemplate.opsForValue().get(VERSION_KEY);
+		} catch (Exception e) {
+			log.warn("读取角色权限版本号失败, 继续使用当前缓存: {}", e.getMessage());
+			return version;
+		}
+	}
+	
+}
@@ -0,0 +1,82 @@
+package org.pms.core.infrastructure.key;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.security.PublicJwk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 签名密钥环对应的JWKS（RFC 7517）, 不可变
+ * 随密钥环一起构建, 只在密钥集合变化（启动、轮换）时重新序列化,
+ * 接口直接输出预先序列化好的字节, 并以内容的SHA-256作为强ETag供调用方条件请求
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public final class JwkSet {
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	
+	/**
+	 * 序列化后的JWKS
+	 */
+	private final byte[] json;
+	
+	/**
+	 * 强ETag, 已带双引号
+	 */
+	private final String etag;
+	
+	private JwkSet(byte[] json, String etag) {
+		this.json = json;
+		this.etag = etag;
+	}
+	
+	/**
+	 * 根据密钥构建JWKS, 每个JWK携带kid、use和alg, 顺序与密钥环一致（当前密钥在前）
+	 *
+	 * @param keys 密钥
+	 * @return JWKS
+	 */
+	public static JwkSet of(List<SigningKey> keys) {
+		List<PublicJwk<?>> jwks = new ArrayList<>(keys.size());
+		for (SigningKey key : keys) {
+			jwks.add(key.getMaterial().getJwk());
+		}
+		try {
+			byte[] json = OBJECT_MAPPER.writeValueAsBytes(Map.of("keys", jwks));
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			String etag = '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + '"';
+			return new JwkSet(json, etag);
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new IllegalStateException("JWKS序列化失败", e);
+		}
+	}
+	
+	/**
+	 * 获取序列化后的JWKS, 为避免复制直接返回内部数组, 调用方不得修改
+	 *
+	 * @return JSON字节
+	 */
+	public byte[] getJson() {
+		return json;
+	}
+	
+	public String getEtag() {
+		return etag;
+	}
+	
+	@Override
+	public String toString() {
+		return new String(json, StandardCharsets.UTF_8);
+	}
+	
+}
@@ -0,0 +1,62 @@
+package org.pms.core.infrastructure.key;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.Getter;
+import org.pms.api.utils.PublicKeyRing;
+
+import java.security.PublicKey;
+import java.util.Base64;
+
+/**
+ * 公钥的各种编码形式（不可变）
+ * 在密钥生成或加载时计算一次, 登录、刷新和RPC接口直接返回这里的字符串, 不再每次请求重新编码公钥
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Getter
+public final class KeyMaterial {
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	
+	/**
+	 * Base64编码的X.509公钥, 即原 publicKey64
+	 */
+	private final String base64;
+	
+	/**
+	 * 公钥SHA-256指纹（Base64URL, 无填充）, 与auth-api的 {@link PublicKeyRing#fingerprint} 一致
+	 */
+	private final String fingerprint;
+	
+	/**
+	 * 公钥JWK, 携带kid、use和alg
+	 */
+	private final PublicJwk<?> jwk;
+	
+	/**
+	 * 序列化后的公钥JWK
+	 */
+	private final String jwkJson;
+	
+	KeyMaterial(PublicKey publicKey, String kid, String algorithm) {
+		this.base64 = Base64.getEncoder().encodeToString(publicKey.getEncoded());
+		this.fingerprint = PublicKeyRing.fingerprint(publicKey);
+		this.jwk = Jwks.builder()
+				.key(publicKey)
+				.id(kid)
+				.publicKeyUse("sig")
+				.algorithm(algorithm)
+				.build();
+		try {
+			this.jwkJson = OBJECT_MAPPER.writeValueAsString(jwk);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("JWK序列化失败", e);
+		}
+	}
+	
+}
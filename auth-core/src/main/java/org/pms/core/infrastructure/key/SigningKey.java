@@ -0,0 +1,46 @@
+package org.pms.core.infrastructure.key;
+
+import lombok.Getter;
+import org.pms.api.utils.PublicKeyRing;
+import org.pms.core.infrastructure.utils.JwtAlgorithm;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+/**
+ * 签名密钥（不可变）
+ * kid由公钥指纹计算, 与auth-api验签端使用同一算法
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Getter
+public final class SigningKey {
+	
+	private final String kid;
+	private final JwtAlgorithm algorithm;
+	private final PublicKey publicKey;
+	private final PrivateKey privateKey;
+	
+	/**
+	 * 密钥创建时间（毫秒时间戳）, 用于判断是否需要轮换
+	 */
+	private final long createdAt;
+	
+	/**
+	 * 公钥的预计算编码形式
+	 */
+	private final KeyMaterial material;
+	
+	public SigningKey(KeyPair keyPair, JwtAlgorithm algorithm, long createdAt) {
+		this.kid = PublicKeyRing.keyId(keyPair.getPublic());
+		this.algorithm = algorithm;
+		this.publicKey = keyPair.getPublic();
+		this.privateKey = keyPair.getPrivate();
+		this.createdAt = createdAt;
+		this.material = new KeyMaterial(publicKey, kid, algorithm.getSignatureAlgorithm().getId());
+	}
+	
+}
@@ -0,0 +1,86 @@
+package org.pms.core.infrastructure.key;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 签名密钥环（不可变）
+ * 当前密钥用于签发token, 轮换前的密钥仅用于验签尚未过期的token
+ * 轮换时构建新的密钥环并整体替换引用, 签发和验签线程无需加锁
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public final class SigningKeyRing {
+	
+	/**
+	 * 当前签发用密钥
+	 */
+	@Getter
+	private final SigningKey activeKey;
+	
+	/**
+	 * 全部有效密钥, 当前密钥在前
+	 */
+	@Getter
+	private final List<SigningKey> keys;
+	
+	private final Map<String, SigningKey> keysById;
+	
+	/**
+	 * kid -> Base64编码的公钥, 当前公钥在前
+	 */
+	@Getter
+	private final Map<String, String> publicKeys;
+	
+	/**
+	 * 全部有效公钥的JWKS, 密钥环不可变, 构建一次即可
+	 */
+	@Getter
+	private final JwkSet jwkSet;
+	
+	public SigningKeyRing(SigningKey activeKey, SigningKey previousKey) {
+		this.activeKey = activeKey;
+		this.keys = previousKey == null || previousKey.getKid().equals(activeKey.getKid())
+				? List.of(activeKey)
+				: List.of(activeKey, previousKey);
+		Map<String, SigningKey> map = new HashMap<>();
+		for (SigningKey key : keys) {
+			map.put(key.getKid(), key);
+		}
+		this.keysById = Collections.unmodifiableMap(map);
+		Map<String, String> encoded = new LinkedHashMap<>();
+		for (SigningKey key : keys) {
+			encoded.put(key.getKid(), key.getMaterial().getBase64());
+		}
+		this.publicKeys = Collections.unmodifiableMap(encoded);
+		this.jwkSet = JwkSet.of(keys);
+	}
+	
+	/**
+	 * 根据kid查找密钥
+	 *
+	 * @param kid JWT头部的kid, 为null时（轮换前签发的旧token）返回当前密钥
+	 * @return 密钥, kid未知时返回null
+	 */
+	public SigningKey find(String kid) {
+		return kid == null ? activeKey : keysById.get(kid);
+	}
+	
+	/**
+	 * 以新密钥为当前密钥, 原当前密钥降为轮换前密钥
+	 *
+	 * @param newKey 新密钥
+	 * @return 新的密钥环
+	 */
+	public SigningKeyRing rotate(SigningKey newKey) {
+		return new SigningKeyRing(newKey, activeKey);
+	}
+	
+}
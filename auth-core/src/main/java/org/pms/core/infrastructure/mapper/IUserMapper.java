@@ -2,6 +2,8 @@ package org.pms.core.infrastructure.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.pms.core.infrastructure.mapper.po.RolePermissionPO;
+import org.pms.core.infrastructure.mapper.po.UserAuthPO;
 import org.pms.core.infrastructure.mapper.po.UserPO;
 
 import java.util.List;
@@ -12,10 +14,48 @@ import java.util.List;
 @Mapper
 public interface IUserMapper {
 
-    List<String> selectAuthoritiesByName(@Param("name") String name);
+    UserPO selectUserByName(@Param("username") String username);
 
-    String selectRoleByName(@Param("username") String username);
+    /**
+     * 一次查询用户及其角色
+     *
+     * @param username 用户名
+     * @return 用户及其角色名、角色id, 用户不存在时返回null
+     */
+    UserAuthPO selectUserAuthByName(@Param("username") String username);
 
-    UserPO selectUserByName(@Param("username") String username);
+    /**
+     * 查询可登录用户的密码哈希
+     *
+     * @param username 用户名
+     * @return 密码哈希, 用户不存在、已锁定或已删除时返回null
+     */
+    String selectPasswordByName(@Param("username") String username);
+
+    /**
+     * 按用户id查询用户名, 不区分锁定和删除状态
+     *
+     * @param id 用户id
+     * @return 用户名, 用户不存在时返回null
+     */
+    String selectUsernameById(@Param("id") Long id);
+
+    /**
+     * 查询全部角色与权限的对应关系, 用于批量加载角色权限缓存
+     *
+     * @return 角色id与权限名
+     */
+    List<RolePermissionPO> selectAllRolePermissions();
+
+    /**
+     * 按权限id顺序查询全部权限名, 用于构建权限字典
+     *
+     * @return 权限名
+     */
+    List<String> selectAllPermissionNames();
+
+    List<String> selectPermissionsByRoleId(@Param("roleId") Long roleId);
+
+    int updatePasswordByName(@Param("username") String username, @Param("password") String password);
 
 }
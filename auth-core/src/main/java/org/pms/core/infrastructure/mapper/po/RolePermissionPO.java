@@ -0,0 +1,22 @@
+package org.pms.core.infrastructure.mapper.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 角色id与权限名的对应关系
+ *
+ * @author alcsyooterranf
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolePermissionPO {
+	
+	private Long roleId;
+	private String permissionName;
+	
+}
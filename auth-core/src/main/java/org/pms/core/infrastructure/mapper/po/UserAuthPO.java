@@ -0,0 +1,28 @@
+package org.pms.core.infrastructure.mapper.po;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * 用户及其角色, 由 selectUserAuthByName 一次查询得到, 权限由角色id从 RolePermissionCache 获取
+ *
+ * @author alcsyooterranf
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class UserAuthPO extends UserPO {
+	
+	@Serial
+	private static final long serialVersionUID = 3412675206137052816L;
+	
+	private String roleName;
+	private List<Long> roleIds;
+	
+}
@@ -10,6 +10,9 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * Redis操作工具类
+ * 写操作失败时抛出RuntimeException, 原始异常作为cause保留
+ *
  * @author alcsyooterranf
  */
 @Component
@@ -35,7 +38,7 @@ public class RedisUtil {
 				redisTemplate.expire(key, time, TimeUnit.SECONDS);
 			}
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -60,7 +63,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.hasKey(key);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -105,7 +108,7 @@ public class RedisUtil {
 		try {
 			redisTemplate.opsForValue().set(key, value);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -126,7 +129,7 @@ public class RedisUtil {
 				set(key, value);
 			}
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -192,28 +195,7 @@ public class RedisUtil {
 			redisTemplate.opsForHash().putAll(key, map);
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
-		}
-	}
-	
-	
-	/**
-	 * HashSet 并设置时间
-	 *
-	 * @param key  键
-	 * @param map  对应多个键值
-	 * @param time 时间(秒)
-	 * @return true成功 false失败
-	 */
-	public boolean hmset(String key, Map<String, Object> map, long time) {
-		try {
-			redisTemplate.opsForHash().putAll(key, map);
-			if (time > 0) {
-				expire(key, time);
-			}
-			return true;
-		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -231,32 +213,10 @@ public class RedisUtil {
 			redisTemplate.opsForHash().put(key, item, value);
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
-	/**
-	 * 向一张hash表中放入数据,如果不存在将创建
-	 *
-	 * @param key   键
-	 * @param item  项
-	 * @param value 值
-	 * @param time  时间(秒) 注意:如果已存在的hash表有时间,这里将会替换原有的时间
-	 * @return true 成功 false失败
-	 */
-	public boolean hset(String key, String item, Object value, long time) {
-		try {
-			redisTemplate.opsForHash().put(key, item, value);
-			if (time > 0) {
-				expire(key, time);
-			}
-			return true;
-		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
-		}
-	}
-	
-	
 	/**
 	 * 删除hash表中的值
 	 *
@@ -315,7 +275,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForSet().members(key);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -331,7 +291,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForSet().isMember(key, value);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -347,7 +307,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForSet().add(key, values);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -368,7 +328,7 @@ public class RedisUtil {
 			}
 			return count;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -382,7 +342,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForSet().size(key);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -400,7 +360,7 @@ public class RedisUtil {
 			Long count = redisTemplate.opsForSet().remove(key, values);
 			return count;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -417,7 +377,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForList().range(key, start, end);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -431,7 +391,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForList().size(key);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -446,7 +406,7 @@ public class RedisUtil {
 		try {
 			return redisTemplate.opsForList().index(key, index);
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -462,7 +422,7 @@ public class RedisUtil {
 			redisTemplate.opsForList().rightPush(key, value);
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -482,7 +442,7 @@ public class RedisUtil {
 			}
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 		
 	}
@@ -500,7 +460,7 @@ public class RedisUtil {
 			redisTemplate.opsForList().rightPushAll(key, value);
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 		
 	}
@@ -522,7 +482,7 @@ public class RedisUtil {
 			}
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -541,7 +501,7 @@ public class RedisUtil {
 			redisTemplate.opsForList().set(key, index, value);
 			return true;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -560,7 +520,7 @@ public class RedisUtil {
 			Long remove = redisTemplate.opsForList().remove(key, count, value);
 			return remove;
 		} catch (Exception e) {
-			throw new RuntimeException(e.getMessage(), e.getCause());
+			throw new RuntimeException(e.getMessage(), e);
 		}
 	}
 	
@@ -0,0 +1,438 @@
+package org.pms.core.infrastructure.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pms.core.domain.model.valobj.RefreshSessionVO;
+import org.pms.types.AuthConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * refreshToken会话存储
+ * 每个会话以Hash保存在 REDIS_KEY_PREFIX_REFRESH + jti 下, 只包含 uid、iat、dev 三个字段（约百字节）,
+ * 不再保存约1KB的完整refreshToken; 使用StringRedisTemplate, 其他服务和运维可直接读取
+ * <p>
+ * 每个用户另有一个会话索引 {@value #USER_SESSIONS_KEY_PREFIX} + uid（ZSET, member为jti, score为签发时间）,
+ * 会话的保存、删除与索引的维护在同一个Lua脚本中原子完成, 撤销用户全部会话、列出会话和超出会话数时淘汰最早的会话
+ * 都只访问该索引, 无需SCAN; 脚本内按前缀拼接会话key, 要求Redis为单机或主从部署
+ * <p>
+ * 开启refreshToken轮换时, 每次刷新由 {@link #rotate} 在一个脚本中消费旧jti并登记新jti; 同一登录产生的refreshToken
+ * 属于同一家族（family, 即首个jti）, 被消费的jti留下标记, 标记再次被使用说明token泄露, 撤销整个家族当前有效的会话;
+ * 消费后 auth.token.rotation.reuse-grace 内的再次使用视为客户端重试（如并发重试落到不同实例）, 返回同一个继任会话
+ * <p>
+ * 迁移: 旧版本通过RedisTemplate（JDK序列化）以相同前缀保存完整token, 两者的key字节不同, 不会冲突。
+ * auth.token.session.legacy-fallback 开启时, 新记录不存在则检查旧key, 命中后按剩余有效期转为新记录并删除旧key;
+ * 旧key在迁移前不在会话索引中, 最迟在refreshToken有效期后自然过期, 之后可关闭该配置
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+@Component
+public class RefreshSessionStore {
+	
+	public static final String USER_SESSIONS_KEY_PREFIX = "auth:user_sessions:";
+	
+	/**
+	 * 已被轮换消费的jti -> 家族id、继任jti和消费时间, 保留到旧token过期
+	 */
+	public static final String USED_KEY_PREFIX = "auth:refresh_used:";
+	
+	/**
+	 * 家族id -> 家族当前有效的jti
+	 */
+	public static final String FAMILY_KEY_PREFIX = "auth:refresh_family:";
+	
+	private static final String REDIS_KEY_PREFIX_REFRESH = AuthConstants.REDIS_KEY_PREFIX_REFRESH;
+	private static final Long REFRESH_EXPIRATION = AuthConstants.REFRESH_EXPIRATION;
+	private static final String FIELD_USER_ID = "uid";
+	private static final String FIELD_ISSUED_AT = "iat";
+	private static final String FIELD_DEVICE = "dev";
+	
+	/**
+	 * 设备标识最大长度, 超出部分截断
+	 */
+	private static final int MAX_DEVICE_LENGTH = 32;
+	
+	/**
+	 * 保存会话并写入用户会话索引, 清理索引中已过期的jti, 超出最大会话数时删除最早的会话
+	 * KEYS: 会话key, 用户会话索引
+	 * ARGV: jti, uid, iat, dev, 有效期, 过期截止时间, 最大会话数(0不限制), 会话key前缀
+	 * 返回被淘汰的会话数
+	 */
+	private static final String SAVE_LUA = """
+			redis.call('HSET', KEYS[1], 'uid', ARGV[2], 'iat', ARGV[3])
+			if ARGV[4] ~= '' then
+			    redis.call('HSET', KEYS[1], 'dev', ARGV[4])
+			end
+			redis.call('EXPIRE', KEYS[1], ARGV[5])
+			redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+			redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. ARGV[6])
+			local evicted = 0
+			local max = tonumber(ARGV[7])
+			if max > 0 then
+			    local overflow = redis.call('ZCARD', KEYS[2]) - max
+			    if overflow > 0 then
+			        local oldest = redis.call('ZRANGE', KEYS[2], 0, overflow - 1)
+			        for _, jti in ipairs(oldest) do
+			            redis.call('DEL', ARGV[8] .. jti)
+			        end
+			        redis.call('ZREMRANGEBYRANK', KEYS[2], 0, overflow - 1)
+			        evicted = overflow
+			    end
+			end
+			if redis.call('TTL', KEYS[2]) < tonumber(ARGV[5]) then
+			    redis.call('EXPIRE', KEYS[2], ARGV[5])
+			end
+			return evicted
+			""";
+	
+	/**
+	 * 删除会话并从用户会话索引中移除
+	 * KEYS: 会话key, 用户会话索引
+	 * ARGV: jti
+	 */
+	private static final String REMOVE_LUA = """
+			redis.call('ZREM', KEYS[2], ARGV[1])
+			return redis.call('DEL', KEYS[1])
+			""";
+	
+	/**
+	 * 删除用户的全部会话和会话索引
+	 * KEYS: 用户会话索引
+	 * ARGV: 会话key前缀
+	 */
+	private static final String REVOKE_ALL_LUA = """
+			local jtis = redis.call('ZRANGE', KEYS[1], 0, -1)
+			local removed = 0
+			for _, jti in ipairs(jtis) do
+			    removed = removed + redis.call('DEL', ARGV[1] .. jti)
+			end
+			redis.call('DEL', KEYS[1])
+			return removed
+			""";
+	
+	/**
+	 * 轮换refreshToken: 消费旧会话, 以相同的uid、dev和家族登记新会话, 消费标记中记录继任jti和消费时间
+	 * 旧会话不存在但有消费标记时: 宽限期内且继任会话仍存在视为客户端重试, 返回继任jti;
+	 * 否则视为重放, 删除家族当前有效的会话（旧版本的消费标记为字符串, 只包含家族id）
+	 * KEYS: 旧会话key, 新会话key, 旧jti的消费标记, 用户会话索引
+	 * ARGV: 旧jti, 新jti, iat, 有效期, 过期截止时间, 会话key前缀, 家族key前缀, 宽限期(秒)
+	 * 返回 {1} 已轮换, {0} 会话不存在, {-1} 检测到重放, {2, 继任jti} 宽限期内重试
+	 */
+	private static final String ROTATE_LUA = """
+			local session = redis.call('HMGET', KEYS[1], 'uid', 'dev', 'fam')
+			if not session[1] then
+			    local markerType = redis.call('TYPE', KEYS[3]).ok
+			    if markerType == 'none' then
+			        return {0}
+			    end
+			    local family, successor, usedAt
+			    if markerType == 'string' then
+			        family = redis.call('GET', KEYS[3])
+			    else
+			        local marker = redis.call('HMGET', KEYS[3], 'fam', 'next', 'at')
+			        family, successor, usedAt = marker[1], marker[2], tonumber(marker[3])
+			    end
+			    if successor and usedAt and tonumber(ARGV[3]) - usedAt <= tonumber(ARGV[8]) then
+			        if redis.call('EXISTS', ARGV[6] .. successor) == 1 then
+			            return {2, successor}
+			        end
+			        return {0}
+			    end
+			    local familyKey = ARGV[7] .. family
+			    local current = redis.call('GET', familyKey)
+			    if current then
+			        redis.call('DEL', ARGV[6] .. current)
+			        redis.call('ZREM', KEYS[4], current)
+			        redis.call('DEL', familyKey)
+			    end
+			    return {-1}
+			end
+			local family = session[3] or ARGV[1]
+			local remaining = redis.call('TTL', KEYS[1])
+			redis.call('DEL', KEYS[1])
+			redis.call('ZREM', KEYS[4], ARGV[1])
+			if remaining > 0 then
+			    redis.call('HSET', KEYS[3], 'fam', family, 'next', ARGV[2], 'at', ARGV[3])
+			    redis.call('EXPIRE', KEYS[3], remaining)
+			end
+			redis.call('HSET', KEYS[2], 'uid', session[1], 'iat', ARGV[3], 'fam', family)
+			if session[2] then
+			    redis.call('HSET', KEYS[2], 'dev', session[2])
+			end
+			redis.call('EXPIRE', KEYS[2], ARGV[4])
+			redis.call('SET', ARGV[7] .. family, ARGV[2], 'EX', ARGV[4])
+			redis.call('ZADD', KEYS[4], ARGV[3], ARGV[2])
+			redis.call('ZREMRANGEBYSCORE', KEYS[4], '-inf', '(' .. ARGV[5])
+			if redis.call('TTL', KEYS[4]) < tonumber(ARGV[4]) then
+			    redis.call('EXPIRE', KEYS[4], ARGV[4])
+			end
+			return {1}
+			""";
+	
+	private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(SAVE_LUA, Long.class);
+	private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(REMOVE_LUA, Long.class);
+	private static final RedisScript<Long> REVOKE_ALL_SCRIPT = new DefaultRedisScript<>(REVOKE_ALL_LUA, Long.class);
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>(ROTATE_LUA, List.class);
+	
+	private final StringRedisTemplate stringRedisTemplate;
+	private final RedisUtil redisUtil;
+	private final boolean legacyFallback;
+	private final int maxSessionsPerUser;
+	private final long reuseGraceSeconds;
+	
+	public RefreshSessionStore(StringRedisTemplate stringRedisTemplate,
+							   RedisUtil redisUtil,
+							   @Value("${auth.token.session.legacy-fallback:true}") boolean legacyFallback,
+							   @Value("${auth.token.session.max-per-user:0}") int maxSessionsPerUser,
+							   @Value("${auth.token.rotation.reuse-grace:PT10S}") Duration reuseGrace) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.redisUtil = redisUtil;
+		this.legacyFallback = legacyFallback;
+		this.maxSessionsPerUser = Math.max(0, maxSessionsPerUser);
+		// 为0时不设宽限期, 消费后的任何再次使用都视为重放
+		this.reuseGraceSeconds = reuseGrace.isNegative() || reuseGrace.isZero() ? -1 : reuseGrace.toSeconds();
+	}
+	
+	/**
+	 * 保存会话并更新用户会话索引, 一次脚本调用完成
+	 *
+	 * @param session 会话
+	 * @param ttl     有效期(秒)
+	 */
+	public void save(RefreshSessionVO session, long ttl) {
+		Long evicted = stringRedisTemplate.execute(SAVE_SCRIPT,
+				List.of(key(session.getJti()), userKey(session.getUserId())),
+				(Object[]) saveArgs(session, ttl));
+		if (evicted != null && evicted > 0) {
+			log.info("用户会话数超出上限, 已淘汰最早的会话, userId: {}, 淘汰数: {}", session.getUserId(), evicted);
+		}
+	}
+	
+	/**
+	 * 读取会话
+	 *
+	 * @param jti refreshToken的jti
+	 * @return 会话, 不存在时返回null
+	 */
+	public RefreshSessionVO find(String jti) {
+		List<Object> values = stringRedisTemplate.opsForHash()
+				.multiGet(key(jti), List.of(FIELD_USER_ID, FIELD_ISSUED_AT, FIELD_DEVICE));
+		return toSession(jti, values);
+	}
+	
+	/**
+	 * 列出用户当前的会话, 按签发时间从新到旧排列
+	 * 读取会话索引后通过一个管道批量读取会话记录, 已过期的会话被跳过
+	 *
+	 * @param userId 用户ID
+	 * @return 会话列表
+	 */
+	public List<RefreshSessionVO> listSessions(Long userId) {
+		Set<String> jtis = stringRedisTemplate.opsForZSet().reverseRange(userKey(userId), 0, -1);
+		if (jtis == null || jtis.isEmpty()) {
+			return List.of();
+		}
+		List<String> jtiList = new ArrayList<>(jtis);
+		List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+				RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+				for (String jti : jtiList) {
+					ops.opsForHash().multiGet(key(jti), List.of(FIELD_USER_ID, FIELD_ISSUED_AT, FIELD_DEVICE));
+				}
+				return null;
+			}
+		});
+		List<RefreshSessionVO> sessions = new ArrayList<>(jtiList.size());
+		for (int i = 0; i < jtiList.size(); i++) {
+			@SuppressWarnings("unchecked")
+			RefreshSessionVO session = toSession(jtiList.get(i), (List<Object>) results.get(i));
+			if (session != null) {
+				sessions.add(session);
+			}
+		}
+		return sessions;
+	}
+	
+	/**
+	 * 判断会话是否存在
+	 *
+	 * @param jti refreshToken的jti
+	 * @return 是否存在
+	 */
+	public boolean exists(String jti) {
+		return Boolean.TRUE.equals(stringRedisTemplate.hasKey(key(jti)));
+	}
+	
+	/**
+	 * 将旧格式（完整refreshToken）的key迁移为会话记录, 保留剩余有效期
+	 *
+	 * @param session 由refreshToken的荷载构造的会话
+	 * @return 旧key存在并已迁移时返回true
+	 */
+	public boolean migrateLegacy(RefreshSessionVO session) {
+		if (!legacyFallback) {
+			return false;
+		}
+		String legacyKey = key(session.getJti());
+		long ttl = redisUtil.getExpire(legacyKey);
+		if (ttl <= 0) {
+			return false;
+		}
+		save(session, ttl);
+		redisUtil.del(legacyKey);
+		log.info("refreshToken会话已迁移为新格式, jti: {}", session.getJti());
+		return true;
+	}
+	
+	/**
+	 * 删除会话并从用户会话索引中移除, 同时删除可能存在的旧格式key
+	 *
+	 * @param jti    refreshToken的jti
+	 * @param userId 用户ID
+	 * @return 是否删除了会话
+	 */
+	public boolean remove(String jti, Long userId) {
+		Long deleted = stringRedisTemplate.execute(REMOVE_SCRIPT, List.of(key(jti), userKey(userId)), jti);
+		boolean removed = deleted != null && deleted > 0;
+		if (legacyFallback) {
+			removed |= Boolean.TRUE.equals(redisUtil.del(key(jti)));
+		}
+		return removed;
+	}
+	
+	/**
+	 * 轮换refreshToken, 一次脚本调用（EVALSHA）完成消费旧jti和登记新jti, 并发重试时只有一个请求能消费成功,
+	 * 宽限期内的其余请求得到同一个继任jti
+	 *
+	 * @param oldJti 旧refreshToken的jti
+	 * @param newJti 新refreshToken的jti
+	 * @param userId 用户ID
+	 * @param ttl    新会话有效期(秒)
+	 * @return 轮换结果
+	 */
+	public Rotation rotate(String oldJti, String newJti, Long userId, long ttl) {
+		long now = System.currentTimeMillis() / 1000;
+		List<?> result = stringRedisTemplate.execute(ROTATE_SCRIPT,
+				List.of(key(oldJti), key(newJti), USED_KEY_PREFIX + oldJti, userKey(userId)),
+				oldJti,
+				newJti,
+				String.valueOf(now),
+				String.valueOf(ttl),
+				String.valueOf(now - REFRESH_EXPIRATION),
+				REDIS_KEY_PREFIX_REFRESH,
+				FAMILY_KEY_PREFIX,
+				String.valueOf(reuseGraceSeconds));
+		long code = result != null && !result.isEmpty() ? ((Number) result.get(0)).longValue() : 0;
+		if (code == 1) {
+			return new Rotation(RotationResult.ROTATED, newJti);
+		}
+		if (code == 2) {
+			return new Rotation(RotationResult.RETRIED, (String) result.get(1));
+		}
+		return new Rotation(code < 0 ? RotationResult.REUSED : RotationResult.NOT_FOUND, null);
+	}
+	
+	/**
+	 * 撤销用户的全部会话
+	 *
+	 * @param userId 用户ID
+	 * @return 删除的会话数
+	 */
+	public int revokeAll(Long userId) {
+		Long removed = stringRedisTemplate.execute(REVOKE_ALL_SCRIPT, List.of(userKey(userId)), REDIS_KEY_PREFIX_REFRESH);
+		return removed != null ? removed.intValue() : 0;
+	}
+	
+	/**
+	 * refreshToken轮换结果
+	 *
+	 * @param result    结果
+	 * @param successor 继任jti, ROTATED时为新jti, RETRIED时为宽限期内已登记的jti, 其余为null
+	 */
+	public record Rotation(RotationResult result, String successor) {
+	}
+	
+	/**
+	 * refreshToken轮换结果类型
+	 */
+	public enum RotationResult {
+		
+		/**
+		 * 旧jti已消费, 新jti已登记
+		 */
+		ROTATED,
+		
+		/**
+		 * 旧jti在宽限期内已被消费, 视为客户端重试, 沿用已登记的继任jti
+		 */
+		RETRIED,
+		
+		/**
+		 * 会话不存在（已过期、已登出或从未签发）
+		 */
+		NOT_FOUND,
+		
+		/**
+		 * 已被消费的jti再次使用, 家族已撤销
+		 */
+		REUSED
+		
+	}
+	
+	private String[] saveArgs(RefreshSessionVO session, long ttl) {
+		long now = System.currentTimeMillis() / 1000;
+		String device = session.getDevice();
+		if (device == null) {
+			device = "";
+		} else if (device.length() > MAX_DEVICE_LENGTH) {
+			device = device.substring(0, MAX_DEVICE_LENGTH);
+		}
+		return new String[]{
+				session.getJti(),
+				String.valueOf(session.getUserId()),
+				String.valueOf(session.getIssuedAt()),
+				device,
+				String.valueOf(ttl),
+				String.valueOf(now - REFRESH_EXPIRATION),
+				String.valueOf(maxSessionsPerUser),
+				REDIS_KEY_PREFIX_REFRESH
+		};
+	}
+	
+	private static RefreshSessionVO toSession(String jti, List<Object> values) {
+		if (values == null || values.get(0) == null) {
+			return null;
+		}
+		return RefreshSessionVO.builder()
+				.jti(jti)
+				.userId(Long.valueOf((String) values.get(0)))
+				.issuedAt(values.get(1) != null ? Long.parseLong((String) values.get(1)) : 0L)
+				.device((String) values.get(2))
+				.build();
+	}
+	
+	private static String key(String jti) {
+		return REDIS_KEY_PREFIX_REFRESH + jti;
+	}
+	
+	private static String userKey(Long userId) {
+		return USER_SESSIONS_KEY_PREFIX + userId;
+	}
+	
+}
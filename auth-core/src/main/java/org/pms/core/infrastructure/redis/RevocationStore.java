@@ -0,0 +1,103 @@
+package org.pms.core.infrastructure.redis;
+
+import org.pms.types.AuthConstants;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * accessToken撤销列表
+ * 被撤销的jti保存在ZSET {@value #REVOKED_KEY} 中, score为撤销时间（毫秒）; accessToken不落库, 撤销后最多在
+ * ACCESS_EXPIRATION 内仍未过期, 因此撤销时间早于该窗口的条目直接清理, 列表大小只与窗口内的撤销次数有关
+ * <p>
+ * Consumer端按撤销时间增量拉取（{@link #since}）, 在本地判断token是否被撤销, 验签路径上不访问Redis
+ * <p>
+ * 撤销时间由Lua脚本读取Redis的TIME, 并与 {@value #CLOCK_KEY} 中记录的上次撤销时间取较大值, 因此score单调不减:
+ * 不受各Auth实例时钟偏差和请求先后到达的影响, 拉取之后写入的条目score都不小于已返回的游标, 不会被跳过
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Component
+public class RevocationStore {
+	
+	public static final String REVOKED_KEY = "auth:revoked_access";
+	
+	/**
+	 * 上次撤销时间（毫秒）, 保证撤销时间单调不减
+	 */
+	public static final String CLOCK_KEY = "auth:revoked_access:clock";
+	
+	/**
+	 * 撤销条目保留时间（毫秒）, 即accessToken的最长有效期
+	 */
+	public static final long RETENTION_MILLIS = AuthConstants.ACCESS_EXPIRATION * 1000;
+	
+	/**
+	 * 以Redis时间登记撤销并清理超出保留时间的条目, 重复撤销保留首次撤销时间
+	 * KEYS: 撤销列表, 上次撤销时间
+	 * ARGV: jti, 保留时间（毫秒）
+	 * 返回撤销时间（毫秒）
+	 */
+	private static final String REVOKE_LUA = """
+			redis.replicate_commands()
+			local time = redis.call('TIME')
+			local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+			local last = tonumber(redis.call('GET', KEYS[2]) or '0')
+			if now < last then
+			    now = last
+			end
+			redis.call('SET', KEYS[2], now, 'PX', ARGV[2])
+			redis.call('ZADD', KEYS[1], 'NX', now, ARGV[1])
+			redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. (now - tonumber(ARGV[2])))
+			return now
+			""";
+	
+	private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>(REVOKE_LUA, Long.class);
+	
+	private final StringRedisTemplate stringRedisTemplate;
+	
+	public RevocationStore(StringRedisTemplate stringRedisTemplate) {
+		this.stringRedisTemplate = stringRedisTemplate;
+	}
+	
+	/**
+	 * 撤销accessToken, 同时清理已超出保留时间的条目, 一次脚本调用完成
+	 * 重复撤销保留首次撤销时间
+	 *
+	 * @param jti accessToken的jti
+	 */
+	public void revoke(String jti) {
+		stringRedisTemplate.execute(REVOKE_SCRIPT, List.of(REVOKED_KEY, CLOCK_KEY), jti, String.valueOf(RETENTION_MILLIS));
+	}
+	
+	/**
+	 * 获取撤销时间不早于cursor的条目
+	 * 边界包含cursor本身, 同一毫秒内后写入的条目不会漏掉, 调用方按jti去重
+	 *
+	 * @param cursor 上次拉取返回的游标, 首次拉取传0
+	 * @return jti -> 撤销时间（毫秒）, 按撤销时间排列
+	 */
+	public Map<String, Long> since(long cursor) {
+		Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+				.rangeByScoreWithScores(REVOKED_KEY, cursor, Double.POSITIVE_INFINITY);
+		Map<String, Long> revoked = new LinkedHashMap<>();
+		if (tuples != null) {
+			for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+				if (tuple.getValue() != null && tuple.getScore() != null) {
+					revoked.put(tuple.getValue(), tuple.getScore().longValue());
+				}
+			}
+		}
+		return revoked;
+	}
+	
+}
@@ -1,12 +1,14 @@
 package org.pms.core.infrastructure.repository;
 
 import org.pms.core.domain.model.entity.LoginUser;
+import org.pms.core.domain.model.valobj.RefreshSessionVO;
 import org.pms.core.domain.model.valobj.UserTokenVO;
 import org.pms.core.domain.repository.IAuthRepository;
-import org.pms.core.infrastructure.utils.JwtUtil;
 import org.pms.core.infrastructure.utils.TokenUtil;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -23,26 +25,63 @@ public class AuthRepository implements IAuthRepository {
 
     @Override
     public void saveUserToken(LoginUser user) {
+        saveUserToken(user, null);
+    }
+
+    @Override
+    public void saveUserToken(LoginUser user, String device) {
         // 1.生成UUID
         String accessTokenUUID = UUID.randomUUID().toString();
         String refreshTokenUUID = UUID.randomUUID().toString();
         // 2.生成token
         String accessToken = tokenUtil.genAccessToken(user, accessTokenUUID);
         String refreshToken = tokenUtil.genRefreshToken(user, refreshTokenUUID);
-        // 3.仅将refreshToken存入redis
-        tokenUtil.saveRefreshToken(refreshTokenUUID, refreshToken);
+        // 3.仅将refreshToken的会话记录存入redis
+        tokenUtil.saveRefreshSession(tokenUtil.newRefreshSession(user, refreshTokenUUID, device));
         // 4.存入loginUser, 返回给前端
         UserTokenVO tokenVO = UserTokenVO.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
-                .publicKey64(JwtUtil.getPublicKeyStr())
                 .build();
+        tokenUtil.attachPublicKey(tokenVO);
         user.setTokenVO(tokenVO);
     }
 
     @Override
-    public void updateUserToken(UserTokenVO tokenVO) {
-        tokenUtil.refreshToken(tokenVO);
+    public String updateUserToken(UserTokenVO tokenVO) {
+        String jti = tokenUtil.refreshToken(tokenVO);
+        tokenUtil.attachPublicKey(tokenVO);
+        return jti;
+    }
+
+    @Override
+    public boolean isRefreshSessionActive(String jti) {
+        return tokenUtil.isRefreshSessionActive(jti);
+    }
+
+    @Override
+    public void revokeAccessToken(String accessToken) {
+        tokenUtil.revokeAccessToken(accessToken);
+    }
+
+    @Override
+    public boolean removeRefreshToken(String refreshToken) {
+        return tokenUtil.removeToken(refreshToken);
+    }
+
+    @Override
+    public Map<String, Long> getRevocationsSince(long cursor) {
+        return tokenUtil.getRevocationsSince(cursor);
+    }
+
+    @Override
+    public int revokeAllSessions(Long userId) {
+        return tokenUtil.revokeAllForUser(userId);
+    }
+
+    @Override
+    public List<RefreshSessionVO> listSessions(Long userId) {
+        return tokenUtil.listSessions(userId);
     }
 
 }
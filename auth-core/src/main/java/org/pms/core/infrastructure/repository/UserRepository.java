@@ -1,16 +1,17 @@
 package org.pms.core.infrastructure.repository;
 
 import lombok.extern.slf4j.Slf4j;
+import org.pms.core.domain.model.aggregate.UserAggregate;
+import org.pms.core.domain.model.entity.LoginUser;
 import org.pms.core.domain.model.entity.UserEntity;
 import org.pms.core.domain.repository.IUserRepository;
+import org.pms.core.infrastructure.cache.RolePermissionCache;
 import org.pms.core.infrastructure.adapter.AuthConverter;
 import org.pms.core.infrastructure.mapper.IUserMapper;
+import org.pms.core.infrastructure.mapper.po.UserAuthPO;
 import org.pms.core.infrastructure.mapper.po.UserPO;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
-
 /**
  * @author alcsyooterranf
  */
@@ -20,10 +21,12 @@ public class UserRepository implements IUserRepository {
 
     private final IUserMapper userMapper;
     private final AuthConverter authConverter;
+    private final RolePermissionCache rolePermissionCache;
 
-    public UserRepository(IUserMapper userMapper, AuthConverter authConverter) {
+    public UserRepository(IUserMapper userMapper, AuthConverter authConverter, RolePermissionCache rolePermissionCache) {
         this.userMapper = userMapper;
         this.authConverter = authConverter;
+        this.rolePermissionCache = rolePermissionCache;
     }
 
     @Override
@@ -33,13 +36,40 @@ public class UserRepository implements IUserRepository {
     }
 
     @Override
-    public List<String> queryAuthoritiesByName(String name) {
-        return userMapper.selectAuthoritiesByName(name);
+    public LoginUser queryLoginUserByName(String username) {
+        UserAuthPO userAuthPO = userMapper.selectUserAuthByName(username);
+        if (userAuthPO == null) {
+            return null;
+        }
+        UserEntity userEntity = authConverter.userPO2entity(userAuthPO);
+        UserAggregate userAggregate = UserAggregate.builder()
+                .id(userEntity.getId())
+                .username(userEntity.getUsername())
+                .password(userEntity.getPassword())
+                .roleName(userAuthPO.getRoleName())
+                .roleIds(userAuthPO.getRoleIds())
+                .permissions(rolePermissionCache.getPermissions(userAuthPO.getRoleIds()))
+                .build();
+        return LoginUser.builder()
+                .userAggregate(userAggregate)
+                .accountNonLocked(!userEntity.getLocked())
+                .accountNonExpired(!userEntity.getRemoved())
+                .build();
+    }
+
+    @Override
+    public String queryPasswordByName(String username) {
+        return userMapper.selectPasswordByName(username);
+    }
+
+    @Override
+    public String queryUsernameById(Long userId) {
+        return userMapper.selectUsernameById(userId);
     }
 
     @Override
-    public String queryRoleByName(String username) {
-        return userMapper.selectRoleByName(username);
+    public void updatePasswordByName(String username, String password) {
+        userMapper.updatePasswordByName(username, password);
     }
 
 }
@@ -0,0 +1,128 @@
+package org.pms.core.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * 可调整计算强度的BCrypt密码编码器
+ * 校验密码时兼容任意强度的已有哈希; 新哈希使用目标强度。目标强度可直接配置,
+ * 也可在启动时测量本机的哈希耗时, 选取耗时不超过目标延迟的最大强度
+ * <p>
+ * 已有哈希的强度与目标强度不一致时 {@link #upgradeEncoding} 返回true,
+ * DaoAuthenticationProvider在该用户下次登录成功后用明文密码重新哈希, 并通过UserDetailsPasswordService写回数据库,
+ * 因此调整强度不会使已有密码失效; 降低强度时不会低于 minStrength
+ * <p>
+ * 自动测量的结果因机器而异, 为避免多个实例来回重新哈希, 自动测量时只升级不降级; 需要降级时应显式配置强度
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+	
+	/**
+	 * BCrypt允许的最大强度
+	 */
+	private static final int MAX_STRENGTH = 31;
+	
+	/**
+	 * 测量哈希耗时的次数, 取最小值以排除JIT预热和调度抖动
+	 */
+	private static final int CALIBRATION_ROUNDS = 3;
+	
+	private final int strength;
+	private final boolean allowDowngrade;
+	private final BCryptPasswordEncoder delegate;
+	
+	/**
+	 * @param strength      目标强度, 不大于0时按 targetLatency 自动测量
+	 * @param minStrength   最小强度
+	 * @param maxStrength   自动测量时的最大强度
+	 * @param targetLatency 自动测量时单次哈希的目标耗时
+	 */
+	public AdaptivePasswordEncoder(int strength, int minStrength, int maxStrength, Duration targetLatency) {
+		if (minStrength < 4 || maxStrength > MAX_STRENGTH || minStrength > maxStrength) {
+			throw new IllegalArgumentException("BCrypt强度范围无效: [" + minStrength + ", " + maxStrength + "]");
+		}
+		this.allowDowngrade = strength > 0;
+		this.strength = strength > 0
+				? Math.max(strength, minStrength)
+				: calibrate(minStrength, maxStrength, targetLatency);
+		this.delegate = new BCryptPasswordEncoder(this.strength);
+		log.info("BCrypt目标强度: {}, 最小强度: {}", this.strength, minStrength);
+	}
+	
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return delegate.encode(rawPassword);
+	}
+	
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return delegate.matches(rawPassword, encodedPassword);
+	}
+	
+	/**
+	 * 已有哈希强度低于目标强度时需要重新哈希; 显式配置强度时, 高于目标强度也重新哈希
+	 * 目标强度不会低于minStrength, 因此不会把哈希降到最小强度以下
+	 *
+	 * @param encodedPassword 已有哈希
+	 * @return 是否需要重新哈希
+	 */
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		int current = strengthOf(encodedPassword);
+		return current > 0 && (current < strength || (allowDowngrade && current > strength));
+	}
+	
+	public int getStrength() {
+		return strength;
+	}
+	
+	/**
+	 * 从BCrypt哈希（$2a$10$...）中解析强度
+	 *
+	 * @param encodedPassword BCrypt哈希
+	 * @return 强度, 格式不正确时返回-1
+	 */
+	static int strengthOf(String encodedPassword) {
+		if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+				|| encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+			return -1;
+		}
+		char tens = encodedPassword.charAt(4);
+		char ones = encodedPassword.charAt(5);
+		if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+			return -1;
+		}
+		return (tens - '0') * 10 + (ones - '0');
+	}
+	
+	/**
+	 * 测量minStrength下的哈希耗时, 强度每加1耗时翻倍, 据此推算不超过目标耗时的最大强度
+	 */
+	private static int calibrate(int minStrength, int maxStrength, Duration targetLatency) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+			long start = System.nanoTime();
+			encoder.encode("calibration");
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		long target = targetLatency.toNanos();
+		int chosen = minStrength;
+		long estimated = best;
+		while (chosen < maxStrength && estimated * 2 <= target) {
+			estimated *= 2;
+			chosen++;
+		}
+		log.info("BCrypt强度测量完成: 强度{}耗时{}ms, 目标耗时{}ms, 选取强度{}（预计{}ms）",
+				minStrength, best / 1_000_000, targetLatency.toMillis(), chosen, estimated / 1_000_000);
+		return chosen;
+	}
+	
+}
@@ -0,0 +1,120 @@
+package org.pms.core.infrastructure.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 密码校验专用线程池
+ * BCrypt校验是CPU密集操作, 放在Tomcat请求线程上执行时, 登录高峰会占满请求线程, 拖慢刷新token和公钥等廉价接口;
+ * 登录改为提交到这个固定大小、有界队列的线程池, 请求线程立即释放
+ * <p>
+ * - 队列已满: 提交时抛出 {@link RejectedExecutionException}, 调用方应返回429
+ * - 排队超过 maxWait: 任务不再执行, future以 {@link RejectedExecutionException} 完成, 调用方应返回503
+ * （客户端多半已经超时, 没有必要再计算哈希）
+ * <p>
+ * 指标: auth.password.verification.queue.size / active（当前排队数和执行数）,
+ * auth.password.verification.wait / execution（排队和执行耗时）, auth.password.verification.rejected（按原因计数）
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+@Component
+public class PasswordVerificationExecutor implements DisposableBean {
+	
+	private static final String METRIC_PREFIX = "auth.password.verification";
+	
+	private final ThreadPoolExecutor executor;
+	private final long maxWaitNanos;
+	private final Timer waitTimer;
+	private final Timer executionTimer;
+	private final Counter queueFullCounter;
+	private final Counter expiredCounter;
+	
+	public PasswordVerificationExecutor(MeterRegistry meterRegistry,
+										@Value("${auth.login.verification.threads:0}") int threads,
+										@Value("${auth.login.verification.queue-capacity:200}") int queueCapacity,
+										@Value("${auth.login.verification.max-wait:PT5S}") Duration maxWait) {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadIndex = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-verify-" + threadIndex.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		this.maxWaitNanos = maxWait.toNanos();
+		
+		Gauge.builder(METRIC_PREFIX + ".queue.size", executor, e -> e.getQueue().size())
+				.description("等待校验密码的登录请求数")
+				.register(meterRegistry);
+		Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("正在校验密码的线程数")
+				.register(meterRegistry);
+		this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+				.description("登录请求在队列中的等待时间")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.executionTimer = Timer.builder(METRIC_PREFIX + ".execution")
+				.description("密码校验及签发token的执行时间")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+		this.queueFullCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+				.tag("reason", "queue_full")
+				.register(meterRegistry);
+		this.expiredCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+				.tag("reason", "expired")
+				.register(meterRegistry);
+		log.info("密码校验线程池已创建, 线程数: {}, 队列容量: {}, 最长排队时间: {}", poolSize, queueCapacity, maxWait);
+	}
+	
+	/**
+	 * 提交密码校验任务
+	 *
+	 * @param task 任务
+	 * @param <T>  结果类型
+	 * @return 任务结果
+	 * @throws RejectedExecutionException 队列已满
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> task) {
+		long submittedAt = System.nanoTime();
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				long waited = System.nanoTime() - submittedAt;
+				waitTimer.record(waited, TimeUnit.NANOSECONDS);
+				if (waited > maxWaitNanos) {
+					expiredCounter.increment();
+					throw new RejectedExecutionException("登录请求排队超时: " + TimeUnit.NANOSECONDS.toMillis(waited) + "ms");
+				}
+				return executionTimer.record(task);
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			queueFullCounter.increment();
+			throw e;
+		}
+	}
+	
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+	
+}
@@ -0,0 +1,66 @@
+package org.pms.core.infrastructure.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.pms.api.IAuthRpcService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * 服务间调用认证过滤器
+ * 请求头 {@value IAuthRpcService#SERVICE_TOKEN_HEADER} 与配置的服务令牌一致时, 以 {@value #SERVICE_AUTHORITY}
+ * 权限认证本次请求; 撤销、列出用户会话等内部RPC接口要求该权限
+ * <p>
+ * 未配置服务令牌时不认证任何请求, 这些接口全部拒绝
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+public class ServiceTokenFilter extends OncePerRequestFilter {
+	
+	public static final String SERVICE_AUTHORITY = "SERVICE_INTERNAL";
+	
+	private static final String SERVICE_PRINCIPAL = "internal-service";
+	
+	private final byte[] serviceToken;
+	
+	/**
+	 * @param serviceToken 服务令牌, 为空时不认证任何请求
+	 */
+	public ServiceTokenFilter(String serviceToken) {
+		this.serviceToken = serviceToken == null || serviceToken.isBlank()
+				? null : serviceToken.getBytes(StandardCharsets.UTF_8);
+		if (this.serviceToken == null) {
+			log.warn("未配置 auth.rpc.service-token, 需要服务间认证的内部RPC接口将拒绝所有请求");
+		}
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String token = request.getHeader(IAuthRpcService.SERVICE_TOKEN_HEADER);
+		if (token != null && serviceToken != null
+				// 定长比较, 避免按耗时逐字节猜测令牌
+				&& MessageDigest.isEqual(serviceToken, token.getBytes(StandardCharsets.UTF_8))) {
+			SecurityContext context = SecurityContextHolder.createEmptyContext();
+			context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(SERVICE_PRINCIPAL, null,
+					List.of(new SimpleGrantedAuthority(SERVICE_AUTHORITY))));
+			SecurityContextHolder.setContext(context);
+		}
+		chain.doFilter(request, response);
+	}
+	
+}
@@ -0,0 +1,106 @@
+package org.pms.core.infrastructure.utils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * JWT签名算法
+ * 通过配置项 auth.jwt.algorithm 选择, 默认RS256
+ * <p>
+ * - RS256: RSA 2048, 兼容已有密钥文件
+ * - ES256: ECDSA P-256, 签名速度远快于RSA, 签名更短
+ * - EdDSA: Ed25519, 签名和验签都最快, 签名最短
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public enum JwtAlgorithm {
+	
+	RS256("RSA", "SHA256withRSA", Jwts.SIG.RS256, ""),
+	ES256("EC", "SHA256withECDSA", Jwts.SIG.ES256, "es256_"),
+	EdDSA("Ed25519", "Ed25519", Jwts.SIG.EdDSA, "ed25519_");
+	
+	/**
+	 * JCA密钥算法名, 用于KeyPairGenerator和KeyFactory
+	 */
+	private final String keyAlgorithm;
+	
+	/**
+	 * JCA签名算法名, 用于Signature; ES256的JCA签名为DER编码, 写入JWT前需转换为R||S格式
+	 */
+	private final String jcaSignatureAlgorithm;
+	
+	/**
+	 * jjwt签名算法
+	 */
+	private final SignatureAlgorithm signatureAlgorithm;
+	
+	/**
+	 * 密钥文件名前缀, RS256为空以兼容已有的密钥文件
+	 */
+	private final String keyFilePrefix;
+	
+	JwtAlgorithm(String keyAlgorithm, String jcaSignatureAlgorithm, SignatureAlgorithm signatureAlgorithm, String keyFilePrefix) {
+		this.keyAlgorithm = keyAlgorithm;
+		this.jcaSignatureAlgorithm = jcaSignatureAlgorithm;
+		this.signatureAlgorithm = signatureAlgorithm;
+		this.keyFilePrefix = keyFilePrefix;
+	}
+	
+	public String getKeyAlgorithm() {
+		return keyAlgorithm;
+	}
+	
+	public String getJcaSignatureAlgorithm() {
+		return jcaSignatureAlgorithm;
+	}
+	
+	public SignatureAlgorithm getSignatureAlgorithm() {
+		return signatureAlgorithm;
+	}
+	
+	public String getKeyFilePrefix() {
+		return keyFilePrefix;
+	}
+	
+	/**
+	 * 创建已初始化的密钥对生成器
+	 *
+	 * @param secureRandom 随机源
+	 * @return 密钥对生成器
+	 * @throws GeneralSecurityException 算法不可用
+	 */
+	public KeyPairGenerator newKeyPairGenerator(SecureRandom secureRandom) throws GeneralSecurityException {
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(keyAlgorithm);
+		switch (this) {
+			// 新版本JWT要求RSA密钥至少2048位
+			case RS256 -> keyPairGenerator.initialize(2048, secureRandom);
+			case ES256 -> keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"), secureRandom);
+			// Ed25519参数固定, 无需指定
+			case EdDSA -> keyPairGenerator.initialize(255, secureRandom);
+		}
+		return keyPairGenerator;
+	}
+	
+	/**
+	 * 根据配置值解析签名算法, 忽略大小写
+	 *
+	 * @param name 配置值
+	 * @return 签名算法
+	 */
+	public static JwtAlgorithm of(String name) {
+		for (JwtAlgorithm algorithm : values()) {
+			if (algorithm.name().equalsIgnoreCase(name)) {
+				return algorithm;
+			}
+		}
+		throw new IllegalArgumentException("不支持的JWT签名算法: " + name);
+	}
+	
+}
@@ -3,17 +3,21 @@ package org.pms.core.infrastructure.utils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.SignatureAlgorithm;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
+import org.pms.api.dto.TokenType;
+import org.pms.api.utils.PermissionDictionary;
 import org.pms.core.domain.model.entity.LoginUser;
+import org.pms.core.infrastructure.key.SigningKey;
 import org.pms.core.initialization.AuthRunner;
 import org.pms.types.AuthCode;
 import org.pms.types.AuthConstants;
 
-import java.security.PrivateKey;
-import java.security.PublicKey;
+import java.security.Key;
 import java.util.*;
 
 /**
@@ -27,11 +31,8 @@ import java.util.*;
 @Slf4j
 public class JwtUtil {
 	
-	private static final SignatureAlgorithm ALGORITHM = Jwts.SIG.RS256;
-	private static final Long REFRESH_EXPIRATION = AuthConstants.REFRESH_EXPIRATION;
 	private static final String ISS = AuthConstants.ISS;
 	private static final String USER_ID = AuthConstants.USER_ID;
-	private static final String USER_NAME = AuthConstants.USER_NAME;
 	private static final String AUTHORITIES = AuthConstants.AUTHORITIES;
 	
 	// 私有构造函数，防止实例化
@@ -39,69 +40,150 @@ public class JwtUtil {
 	}
 	
 	/**
-	 * 获取公钥（从 ApplicationInitializer 获取）
+	 * 验签用JwtParser, 只构建一次; 验签公钥由keyLocator按JWT头部的kid从签名密钥环中选取,
+	 * 密钥轮换后用旧密钥签发、尚未过期的token仍可验签
 	 */
-	private static PublicKey getPublicKey() {
-		return AuthRunner.getPublicKey();
-	}
-	
-	/**
-	 * 获取私钥（从 ApplicationInitializer 获取）
-	 */
-	private static PrivateKey getPrivateKey() {
-		return AuthRunner.getPrivateKey();
-	}
+	private static final JwtParser PARSER = Jwts.parser()
+			.keyLocator(new LocatorAdapter<Key>() {
+				@Override
+				protected Key locate(ProtectedHeader header) {
+					SigningKey signingKey = AuthRunner.getKeyRing().find(header.getKeyId());
+					return signingKey != null ? signingKey.getPublicKey() : null;
+				}
+			})
+			.build();
 	
 	/**
 	 * 获取Base64编码的公钥字符串
+	 * 返回密钥加载时预先计算好的编码结果, 不再每次调用重新编码
 	 *
 	 * @return Base64编码的公钥
 	 */
 	public static String getPublicKeyStr() {
-		return Base64.getEncoder().encodeToString(getPublicKey().getEncoded());
+		return AuthRunner.getActiveKey().getMaterial().getBase64();
 	}
 	
 	/**
 	 * 根据用户信息生成token,存入用户信息
+	 * 由 {@link JwtWriter} 直接写出固定的荷载字段并签名, 权限以字符串数组写入
 	 *
-	 * @param user 用户信息
+	 * @param user       用户信息
+	 * @param uuid       jti
+	 * @param expiration 过期时间(秒)
+	 * @param tokenType  token类型
 	 * @return token
 	 */
-	public static String generateToken(LoginUser user, String uuid, Long expiration) {
-		Map<String, Object> claims = new HashMap<>();
-		claims.put(USER_ID, user.getUserAggregate().getId());                           // 用户ID
-		claims.put(USER_NAME, user.getUsername());                                      // 用户名
-		claims.put(AUTHORITIES, user.getAuthorities());                                 // 用户权限
-		
-		return Jwts.builder()
-				.claims(claims)                                                         // 自定义payload信息
-				.issuer(ISS)                                                            // jwt签发者
-				.id(uuid)                                                               // jwt唯一标识jti
-				.issuedAt(new Date())                                                   // jwt签发时间
-				.expiration(new Date(System.currentTimeMillis() + expiration * 1000))   // jwt过期时间
-				.signWith(getPrivateKey(), ALGORITHM)                                   // 签名算法
-				.compact();                                                             // 格式压缩
+	public static String generateToken(LoginUser user, String uuid, Long expiration, TokenType tokenType) {
+		return generateToken(user, uuid, expiration, tokenType, null);
 	}
 	
 	/**
-	 * 刷新token
+	 * 根据用户信息生成token, 权限字典不为空时字典内的权限以位图写入
+	 *
+	 * @param user       用户信息
+	 * @param uuid       jti
+	 * @param expiration 过期时间(秒)
+	 * @param tokenType  token类型
+	 * @param dictionary 权限字典, 为空时权限以字符串数组写入
+	 * @return token
+	 */
+	public static String generateToken(LoginUser user, String uuid, Long expiration, TokenType tokenType,
+									   PermissionDictionary dictionary) {
+		// 只读取一次当前密钥, 保证kid、私钥和算法一致
+		SigningKey signingKey = AuthRunner.getActiveKey();
+		long now = System.currentTimeMillis() / 1000;
+		return JwtWriter.write(signingKey,
+				user.getUserAggregate().getId(),                                        // 用户ID
+				user.getUsername(),                                                     // 用户名
+				user.getAuthorities(),                                                  // 用户权限
+				tokenType,                                                              // token类型
+				ISS,                                                                    // jwt签发者
+				uuid,                                                                   // jwt唯一标识jti
+				now,                                                                    // jwt签发时间
+				now + expiration,                                                       // jwt过期时间
+				dictionary);                                                            // 权限字典
+	}
+	
+	/**
+	 * 刷新token, 由refreshToken签发accessToken
 	 *
 	 * @param refreshToken 刷新token
-	 * @return 新token
+	 * @return 新的accessToken
 	 */
 	public static String refreshToken(String refreshToken, Long expiration) {
-		Claims claims = getClaimsFromToken(refreshToken);
+		return reissue(getClaimsFromToken(refreshToken), UUID.randomUUID().toString(), expiration, TokenType.ACCESS);
+	}
+	
+	/**
+	 * 以已验签token的荷载重新签发token, 只替换jti、类型、签发时间和过期时间
+	 *
+	 * @param claims     已验签token的荷载
+	 * @param jti        新token的jti
+	 * @param expiration 过期时间(秒)
+	 * @param tokenType  新token的类型
+	 * @return 新token
+	 */
+	static String reissue(Claims claims, String jti, Long expiration, TokenType tokenType) {
+		return reissue(claims, jti, expiration, tokenType, null);
+	}
+	
+	/**
+	 * 以已验签token的荷载重新签发token, 权限字典不为空时按该字典重新编码权限
+	 * 原token须以字符串数组携带权限（refreshToken始终如此）
+	 *
+	 * @param claims     已验签token的荷载
+	 * @param jti        新token的jti
+	 * @param expiration 过期时间(秒)
+	 * @param tokenType  新token的类型
+	 * @param dictionary 权限字典, 为空时原样复制权限
+	 * @return 新token
+	 */
+	static String reissue(Claims claims, String jti, Long expiration, TokenType tokenType,
+						  PermissionDictionary dictionary) {
+		SigningKey signingKey = AuthRunner.getActiveKey();
+		Map<String, Object> payload = claims;
+		if (dictionary != null) {
+			payload = new HashMap<>(claims);
+			List<String> unmatched = new ArrayList<>();
+			payload.put(PermissionDictionary.BITS_CLAIM, dictionary.encode(getAuthorities(claims), unmatched));
+			payload.put(PermissionDictionary.VERSION_CLAIM, dictionary.getVersion());
+			payload.put(AUTHORITIES, unmatched);
+		}
 		
 		return Jwts.builder()
-				.claims(claims)
+				.header().keyId(signingKey.getKid()).and()
+				.claims(payload)
+				.claim(TokenType.CLAIM, tokenType.getCode())
 				.issuer(ISS)
-				.id(UUID.randomUUID().toString())
+				.id(jti)
 				.issuedAt(new Date())
 				.expiration(new Date(System.currentTimeMillis() + expiration * 1000))
-				.signWith(getPrivateKey(), ALGORITHM)
+				.signWith(signingKey.getPrivateKey(), signingKey.getAlgorithm().getSignatureAlgorithm())
 				.compact();
 	}
 	
+	/**
+	 * 读取荷载中的权限名, 兼容字符串数组和 {"authority": ...} 对象两种格式
+	 *
+	 * @param claims 荷载
+	 * @return 权限名
+	 */
+	private static List<String> getAuthorities(Claims claims) {
+		Object value = claims.get(AUTHORITIES);
+		if (!(value instanceof Collection<?> collection)) {
+			return List.of();
+		}
+		List<String> authorities = new ArrayList<>(collection.size());
+		for (Object item : collection) {
+			if (item instanceof String authority) {
+				authorities.add(authority);
+			} else if (item instanceof Map<?, ?> map && map.get("authority") != null) {
+				authorities.add(map.get("authority").toString());
+			}
+		}
+		return authorities;
+	}
+	
 	/**
 	 * 判断token是否可以被刷新
 	 *
@@ -130,18 +212,36 @@ public class JwtUtil {
 		return getClaimsFromToken(token).getId();
 	}
 	
+	/**
+	 * 从token中获取用户ID
+	 *
+	 * @param token token
+	 * @return 用户ID
+	 */
+	public static Long getUserIdFromToken(String token) {
+		return getUserId(getClaimsFromToken(token));
+	}
+	
+	/**
+	 * 从荷载中获取用户ID
+	 *
+	 * @param claims 荷载
+	 * @return 用户ID
+	 */
+	static Long getUserId(Claims claims) {
+		return claims.get(USER_ID, Long.class);
+	}
+	
 	/**
 	 * 从token中获取荷载, 出现异常时返回空值claims
 	 *
 	 * @param token token
 	 * @return 荷载
 	 */
-	private static Claims getClaimsFromToken(String token) {
+	static Claims getClaimsFromToken(String token) {
 		Claims claims;
 		try {
-			claims = Jwts.parser()
-					.verifyWith(getPublicKey())
-					.build()
+			claims = PARSER
 					.parseSignedClaims(token)
 					.getPayload();
 		} catch (JwtException e) {
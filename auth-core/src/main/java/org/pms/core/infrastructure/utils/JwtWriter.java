@@ -0,0 +1,342 @@
+package org.pms.core.infrastructure.utils;
+
+import org.pms.api.dto.TokenType;
+import org.pms.api.utils.PermissionDictionary;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.pms.types.AuthConstants;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * 登录签发token专用的JWT写入器
+ * 荷载字段固定, 直接按字段顺序写出JSON字节, 不再经过HashMap和Jackson反射序列化; 权限以字符串数组写出,
+ * 而非 SimpleGrantedAuthority 序列化出的 {"authority": ...} 对象。生成的JWT与jjwt签发的token声明相同,
+ * 可由jjwt及auth-api正常验签解析
+ * <p>
+ * 字节缓冲区和Signature实例放在一个有界池中复用, 签发时取出、签发后归还, 池空时新建, 池满时丢弃;
+ * 不依赖ThreadLocal, 每个请求使用新虚拟线程时同样有效, 也不会随线程数增长而滞留。
+ * 缓冲区超过 {@link #MAX_RETAINED_CAPACITY} 时不再保留, 避免个别超大token长期占用内存
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+final class JwtWriter {
+	
+	private static final String USER_ID = AuthConstants.USER_ID;
+	private static final String USER_NAME = AuthConstants.USER_NAME;
+	private static final String AUTHORITIES = AuthConstants.AUTHORITIES;
+	
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+	
+	/**
+	 * ES256签名中R、S各自的字节长度
+	 */
+	private static final int ES256_COMPONENT_LENGTH = 32;
+	
+	private static final byte[] BASE64_URL =
+			"ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	
+	/**
+	 * 缓冲区池, 签名为CPU密集操作, 同时签发的线程数接近CPU核数
+	 */
+	private static final ArrayBlockingQueue<Buffers> BUFFERS =
+			new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+	
+	private JwtWriter() {
+	}
+	
+	/**
+	 * 签发token
+	 *
+	 * @param signingKey  签名密钥
+	 * @param userId      用户ID
+	 * @param username    用户名
+	 * @param authorities 用户权限
+	 * @param tokenType   token类型
+	 * @param issuer      签发者
+	 * @param jti         jti
+	 * @param issuedAt    签发时间, 秒级时间戳
+	 * @param expiration  过期时间, 秒级时间戳
+	 * @param dictionary  权限字典, 不为空时字典内的权限以位图写入, authorities中只保留字典外的权限
+	 * @return token
+	 */
+	static String write(SigningKey signingKey, Long userId, String username,
+						Collection<? extends GrantedAuthority> authorities, TokenType tokenType,
+						String issuer, String jti, long issuedAt, long expiration,
+						PermissionDictionary dictionary) {
+		Buffers pooled = BUFFERS.poll();
+		Buffers buffers = pooled != null ? pooled : new Buffers();
+		try {
+			ByteSink json = buffers.json;
+			ByteSink token = buffers.token;
+			json.reset();
+			token.reset();
+			
+			// 1. 头部
+			json.ascii("{\"kid\":").string(signingKey.getKid())
+					.ascii(",\"alg\":").string(signingKey.getAlgorithm().getSignatureAlgorithm().getId())
+					.ascii("}");
+			token.base64Url(json);
+			token.write((byte) '.');
+			
+			// 2. 荷载
+			json.reset();
+			json.ascii("{\"").ascii(USER_ID).ascii("\":");
+			if (userId != null) {
+				json.number(userId);
+			} else {
+				json.ascii("null");
+			}
+			json.ascii(",\"").ascii(USER_NAME).ascii("\":").string(username);
+			json.ascii(",\"").ascii(AUTHORITIES).ascii("\":[");
+			if (dictionary == null) {
+				boolean first = true;
+				for (GrantedAuthority authority : authorities) {
+					if (!first) {
+						json.write((byte) ',');
+					}
+					json.string(authority.getAuthority());
+					first = false;
+				}
+				json.write((byte) ']');
+			} else {
+				List<String> names = new ArrayList<>(authorities.size());
+				for (GrantedAuthority authority : authorities) {
+					names.add(authority.getAuthority());
+				}
+				List<String> unmatched = new ArrayList<>();
+				String bits = dictionary.encode(names, unmatched);
+				for (int i = 0; i < unmatched.size(); i++) {
+					if (i > 0) {
+						json.write((byte) ',');
+					}
+					json.string(unmatched.get(i));
+				}
+				json.write((byte) ']');
+				json.ascii(",\"").ascii(PermissionDictionary.VERSION_CLAIM).ascii("\":").string(dictionary.getVersion());
+				json.ascii(",\"").ascii(PermissionDictionary.BITS_CLAIM).ascii("\":").string(bits);
+			}
+			json.ascii(",\"").ascii(TokenType.CLAIM).ascii("\":").string(tokenType.getCode());
+			json.ascii(",\"iss\":").string(issuer);
+			json.ascii(",\"jti\":").string(jti);
+			json.ascii(",\"iat\":").number(issuedAt);
+			json.ascii(",\"exp\":").number(expiration);
+			json.write((byte) '}');
+			token.base64Url(json);
+			
+			// 3. 签名
+			Signature signature = buffers.signature(signingKey.getAlgorithm());
+			signature.initSign(signingKey.getPrivateKey());
+			signature.update(token.bytes, 0, token.length);
+			byte[] signed = signature.sign();
+			if (signingKey.getAlgorithm() == JwtAlgorithm.ES256) {
+				signed = derToJose(signed);
+			}
+			token.write((byte) '.');
+			token.base64Url(signed, signed.length);
+			return new String(token.bytes, 0, token.length, StandardCharsets.US_ASCII);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("JWT签名失败", e);
+		} finally {
+			buffers.trim();
+			BUFFERS.offer(buffers);
+		}
+	}
+	
+	/**
+	 * 将JCA输出的DER编码ECDSA签名转换为JWS要求的 R||S 定长格式
+	 *
+	 * @param der DER编码签名
+	 * @return R||S, 共64字节
+	 */
+	static byte[] derToJose(byte[] der) throws GeneralSecurityException {
+		// SEQUENCE { INTEGER r, INTEGER s }, P-256签名长度不超过72字节, 长度字段为单字节或0x81前缀
+		if (der.length < 8 || der[0] != 0x30) {
+			throw new GeneralSecurityException("无效的ECDSA签名");
+		}
+		int offset = der[1] == (byte) 0x81 ? 3 : 2;
+		byte[] jose = new byte[ES256_COMPONENT_LENGTH * 2];
+		for (int component = 0; component < 2; component++) {
+			if (der[offset] != 0x02) {
+				throw new GeneralSecurityException("无效的ECDSA签名");
+			}
+			int length = der[offset + 1];
+			int start = offset + 2;
+			// 去掉符号位补的前导0
+			while (length > ES256_COMPONENT_LENGTH && der[start] == 0) {
+				start++;
+				length--;
+			}
+			if (length > ES256_COMPONENT_LENGTH) {
+				throw new GeneralSecurityException("无效的ECDSA签名");
+			}
+			System.arraycopy(der, start, jose, (component + 1) * ES256_COMPONENT_LENGTH - length, length);
+			offset = start + length;
+		}
+		return jose;
+	}
+	
+	/**
+	 * 一次签发使用的缓冲区和Signature实例, 从 {@link #BUFFERS} 取出后由当前线程独占, 签发完成后归还池中
+	 */
+	private static final class Buffers {
+		
+		private final ByteSink json = new ByteSink();
+		private final ByteSink token = new ByteSink();
+		private final Map<JwtAlgorithm, Signature> signatures = new EnumMap<>(JwtAlgorithm.class);
+		
+		Signature signature(JwtAlgorithm algorithm) throws GeneralSecurityException {
+			Signature signature = signatures.get(algorithm);
+			if (signature == null) {
+				signature = Signature.getInstance(algorithm.getJcaSignatureAlgorithm());
+				signatures.put(algorithm, signature);
+			}
+			return signature;
+		}
+		
+		void trim() {
+			json.trim();
+			token.trim();
+		}
+		
+	}
+	
+	/**
+	 * 可增长的字节缓冲区, 字符串按UTF-8写入并做JSON转义
+	 */
+	private static final class ByteSink {
+		
+		private byte[] bytes = new byte[INITIAL_CAPACITY];
+		private int length;
+		
+		void reset() {
+			length = 0;
+		}
+		
+		void trim() {
+			if (bytes.length > MAX_RETAINED_CAPACITY) {
+				bytes = new byte[INITIAL_CAPACITY];
+			}
+		}
+		
+		ByteSink write(byte b) {
+			ensure(1);
+			bytes[length++] = b;
+			return this;
+		}
+		
+		/**
+		 * 写入不需要转义的ASCII常量
+		 */
+		ByteSink ascii(String value) {
+			int size = value.length();
+			ensure(size);
+			for (int i = 0; i < size; i++) {
+				bytes[length++] = (byte) value.charAt(i);
+			}
+			return this;
+		}
+		
+		ByteSink number(long value) {
+			return ascii(Long.toString(value));
+		}
+		
+		/**
+		 * 写入JSON字符串
+		 */
+		ByteSink string(String value) {
+			if (value == null) {
+				return ascii("null");
+			}
+			write((byte) '"');
+			int size = value.length();
+			for (int i = 0; i < size; i++) {
+				char c = value.charAt(i);
+				if (c == '"' || c == '\\') {
+					write((byte) '\\').write((byte) c);
+				} else if (c < 0x20) {
+					ensure(6);
+					bytes[length++] = '\\';
+					bytes[length++] = 'u';
+					bytes[length++] = '0';
+					bytes[length++] = '0';
+					bytes[length++] = HEX[c >> 4];
+					bytes[length++] = HEX[c & 0xF];
+				} else if (c < 0x80) {
+					write((byte) c);
+				} else if (c < 0x800) {
+					ensure(2);
+					bytes[length++] = (byte) (0xC0 | (c >> 6));
+					bytes[length++] = (byte) (0x80 | (c & 0x3F));
+				} else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(value.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, value.charAt(++i));
+					ensure(4);
+					bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+					bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+					bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+					bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+				} else if (Character.isSurrogate(c)) {
+					// 不成对的代理字符, 与String.getBytes(UTF_8)一致替换为'?'
+					write((byte) '?');
+				} else {
+					ensure(3);
+					bytes[length++] = (byte) (0xE0 | (c >> 12));
+					bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					bytes[length++] = (byte) (0x80 | (c & 0x3F));
+				}
+			}
+			return write((byte) '"');
+		}
+		
+		/**
+		 * 追加另一个缓冲区内容的Base64URL编码（无填充）
+		 */
+		void base64Url(ByteSink source) {
+			base64Url(source.bytes, source.length);
+		}
+		
+		void base64Url(byte[] source, int sourceLength) {
+			ensure((sourceLength * 4 + 2) / 3);
+			int i = 0;
+			for (; i + 2 < sourceLength; i += 3) {
+				int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8 | (source[i + 2] & 0xFF);
+				bytes[length++] = BASE64_URL[bits >>> 18];
+				bytes[length++] = BASE64_URL[(bits >>> 12) & 0x3F];
+				bytes[length++] = BASE64_URL[(bits >>> 6) & 0x3F];
+				bytes[length++] = BASE64_URL[bits & 0x3F];
+			}
+			int remaining = sourceLength - i;
+			if (remaining == 1) {
+				int bits = (source[i] & 0xFF) << 16;
+				bytes[length++] = BASE64_URL[bits >>> 18];
+				bytes[length++] = BASE64_URL[(bits >>> 12) & 0x3F];
+			} else if (remaining == 2) {
+				int bits = (source[i] & 0xFF) << 16 | (source[i + 1] & 0xFF) << 8;
+				bytes[length++] = BASE64_URL[bits >>> 18];
+				bytes[length++] = BASE64_URL[(bits >>> 12) & 0x3F];
+				bytes[length++] = BASE64_URL[(bits >>> 6) & 0x3F];
+			}
+		}
+		
+		private void ensure(int extra) {
+			if (length + extra > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+			}
+		}
+		
+	}
+	
+}
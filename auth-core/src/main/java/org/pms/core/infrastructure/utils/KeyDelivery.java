@@ -0,0 +1,34 @@
+package org.pms.core.infrastructure.utils;
+
+/**
+ * 登录和刷新响应中公钥的下发方式
+ * 通过配置项 auth.token.key-delivery 选择, 默认FULL以兼容已有客户端
+ * <p>
+ * - FULL: 同时返回Base64编码的完整公钥 publicKey64 和 keyId
+ * - KID: 只返回 keyId（约16字节）, 客户端按kid从 /rpc/auth/jwks 获取并缓存公钥, 每个响应可减少约400字节
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public enum KeyDelivery {
+	
+	FULL,
+	KID;
+	
+	/**
+	 * 根据配置值解析公钥下发方式, 忽略大小写
+	 *
+	 * @param name 配置值
+	 * @return 公钥下发方式
+	 */
+	public static KeyDelivery of(String name) {
+		for (KeyDelivery keyDelivery : values()) {
+			if (keyDelivery.name().equalsIgnoreCase(name)) {
+				return keyDelivery;
+			}
+		}
+		throw new IllegalArgumentException("不支持的公钥下发方式: " + name);
+	}
+	
+}
@@ -0,0 +1,35 @@
+package org.pms.core.infrastructure.utils;
+
+/**
+ * accessToken中权限的编码方式
+ * 通过配置项 auth.token.permission-encoding 选择, 默认NAMES以兼容未同步权限字典的Consumer
+ * <p>
+ * - NAMES: 权限以字符串数组写入 authorities
+ * - BITSET: 权限字典内的权限以位图写入 pbs, 字典版本写入 pdv, authorities中只保留字典外的权限;
+ * 开启前所有Consumer须已启动 PermissionDictionaryRefresher
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public enum PermissionEncoding {
+	
+	NAMES,
+	BITSET;
+	
+	/**
+	 * 根据配置值解析权限编码方式, 忽略大小写
+	 *
+	 * @param name 配置值
+	 * @return 权限编码方式
+	 */
+	public static PermissionEncoding of(String name) {
+		for (PermissionEncoding permissionEncoding : values()) {
+			if (permissionEncoding.name().equalsIgnoreCase(name)) {
+				return permissionEncoding;
+			}
+		}
+		throw new IllegalArgumentException("不支持的权限编码方式: " + name);
+	}
+	
+}
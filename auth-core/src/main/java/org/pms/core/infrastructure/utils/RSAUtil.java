@@ -6,6 +6,9 @@ import org.springframework.util.ObjectUtils;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
@@ -14,65 +17,145 @@ import java.util.Base64;
 
 
 /**
- * RSA密钥工具类（Auth服务专用）
+ * 密钥工具类（Auth服务专用）
  * Auth服务持有私钥和公钥，用于签发JWT
+ * 支持 {@link JwtAlgorithm} 中的RSA、EC(P-256)和Ed25519密钥, 生成、保存和加载方式一致
  *
  * @author alcsyooterranf
  */
 @Slf4j
 public class RSAUtil {
 	
-	private static final String ALGORITHM = AuthConstants.ALGORITHM;
 	private static final String PUBLIC_KEY_FILENAME = AuthConstants.PUBLIC_KEY_FILENAME;
 	private static final String PRIVATE_KEY_FILENAME = AuthConstants.PRIVATE_KEY_FILENAME;
 	// TODO: 静态变量
 	private static final String LOCAL_KEY_PATH = "data/keys";
+	// 轮换前密钥文件名前缀
+	private static final String PREVIOUS_KEY_PREFIX = "previous_";
+	// 轮换时新密钥临时文件名前缀
+	private static final String ROTATING_KEY_PREFIX = "rotating_";
 	
 	/**
-	 * 生成RSA公私钥
+	 * 生成公私钥
 	 *
+	 * @param algorithm 签名算法
 	 * @return keyMap
 	 */
-	public static KeyPair getKeyPair() throws NoSuchAlgorithmException, IOException {
+	public static KeyPair getKeyPair(JwtAlgorithm algorithm) throws GeneralSecurityException, IOException {
 		KeyPair keyPair = null;
 		try {
-			keyPair = loadKey();
+			keyPair = loadKey(algorithm.getKeyFilePrefix(), algorithm);
 		} catch (Exception e) {
 			log.error("load key failed: {}, create new key", e.getMessage());
-			keyPair = createKey();
-			saveKey(keyPair);
+			keyPair = createKey(algorithm);
+			saveKey(keyPair, algorithm.getKeyFilePrefix());
 		} finally {
-			log.debug("RSA key: {}", keyPair);
+			log.debug("{} key: {}", algorithm, keyPair);
 		}
 		return keyPair;
 	}
 	
-	// 生成RSA公私钥
+	/**
+	 * 读取轮换前的公私钥
+	 *
+	 * @param algorithm 签名算法
+	 * @return keyMap, 不存在时返回null
+	 */
+	public static KeyPair getPreviousKeyPair(JwtAlgorithm algorithm) {
+		String prefix = PREVIOUS_KEY_PREFIX + algorithm.getKeyFilePrefix();
+		if (!new File(LOCAL_KEY_PATH, prefix + PUBLIC_KEY_FILENAME).exists()) {
+			return null;
+		}
+		try {
+			return loadKey(prefix, algorithm);
+		} catch (Exception e) {
+			log.warn("load previous key failed: {}", e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * 轮换公私钥: 新的公私钥先写入临时文件, 当前密钥文件复制为轮换前密钥文件后, 再将临时文件改名为当前密钥文件
+	 * 写入新密钥失败时当前密钥文件保持不变; 任何时刻磁盘上都有完整的当前密钥文件
+	 *
+	 * @param algorithm 签名算法
+	 * @return 新的keyMap
+	 */
+	public static KeyPair rotateKeyPair(JwtAlgorithm algorithm) throws GeneralSecurityException, IOException {
+		String prefix = algorithm.getKeyFilePrefix();
+		String previousPrefix = PREVIOUS_KEY_PREFIX + prefix;
+		String rotatingPrefix = ROTATING_KEY_PREFIX + prefix;
+		File dir = new File(LOCAL_KEY_PATH);
+		KeyPair keyPair = createKey(algorithm);
+		try {
+			saveKey(keyPair, rotatingPrefix);
+		} catch (IOException e) {
+			Files.deleteIfExists(new File(dir, rotatingPrefix + PUBLIC_KEY_FILENAME).toPath());
+			Files.deleteIfExists(new File(dir, rotatingPrefix + PRIVATE_KEY_FILENAME).toPath());
+			throw e;
+		}
+		// 保留文件修改时间, 轮换前密钥的创建时间仍以其公钥文件的修改时间为准
+		Files.copy(new File(dir, prefix + PUBLIC_KEY_FILENAME).toPath(),
+				new File(dir, previousPrefix + PUBLIC_KEY_FILENAME).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+		Files.copy(new File(dir, prefix + PRIVATE_KEY_FILENAME).toPath(),
+				new File(dir, previousPrefix + PRIVATE_KEY_FILENAME).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+		replace(new File(dir, rotatingPrefix + PRIVATE_KEY_FILENAME), new File(dir, prefix + PRIVATE_KEY_FILENAME));
+		replace(new File(dir, rotatingPrefix + PUBLIC_KEY_FILENAME), new File(dir, prefix + PUBLIC_KEY_FILENAME));
+		log.info("rotate {} key success", algorithm);
+		return keyPair;
+	}
+	
+	/**
+	 * 用源文件替换目标文件, 文件系统支持时原子替换
+	 */
+	private static void replace(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * 获取密钥的创建时间（公钥文件的最后修改时间）
+	 *
+	 * @param algorithm 签名算法
+	 * @param previous  是否为轮换前密钥
+	 * @return 毫秒时间戳, 文件不存在时返回当前时间
+	 */
+	public static long getKeyCreatedAt(JwtAlgorithm algorithm, boolean previous) {
+		String prefix = (previous ? PREVIOUS_KEY_PREFIX : "") + algorithm.getKeyFilePrefix();
+		long lastModified = new File(LOCAL_KEY_PATH, prefix + PUBLIC_KEY_FILENAME).lastModified();
+		return lastModified > 0 ? lastModified : System.currentTimeMillis();
+	}
+	
+	// 生成公私钥
 	// <其中salt为自定义字符串，相对而言越复杂越好>
-	private static KeyPair createKey() throws NoSuchAlgorithmException {
-		// 首先生成一个KeyPairGenerator对象，用于生成非对称公私钥，实例化时指定类型为“RSA”
-		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(ALGORITHM);
+	private static KeyPair createKey(JwtAlgorithm algorithm) throws GeneralSecurityException {
 		// 根据salt创建一个随机源
 		String salt = String.valueOf(System.currentTimeMillis());
 		SecureRandom secureRandom = new SecureRandom(salt.getBytes());
-		// 对KeyPairGenerator对象执行初始化，其中2048代表密钥大小，新版本JWT至少要2048长度；参数二为随机源
-		keyPairGenerator.initialize(2048, secureRandom);
+		// 按签名算法生成并初始化KeyPairGenerator对象，RSA为2048位，EC为P-256曲线，Ed25519参数固定
+		KeyPairGenerator keyPairGenerator = algorithm.newKeyPairGenerator(secureRandom);
 		// 生成公私钥，“genKeyPair()”方法与“generateKeyPair()”方法相同，都能用
 		KeyPair keyPair = keyPairGenerator.genKeyPair();
-		log.debug("rsaKey: {}", keyPair);
+		log.debug("{} key: {}", algorithm, keyPair);
 		
-		log.info("create key success");
+		log.info("create {} key success", algorithm);
 		return keyPair;// 若需要将密钥写入文件，可以对生成的公私钥执行“对象名.getEncoded()”方法将密钥转换为“byte[]”，再写入文件
 	}
 	
-	private static void saveKey(KeyPair key) throws IOException {
+	private static void saveKey(KeyPair key, String prefix) throws IOException {
 		File dir = new File(LOCAL_KEY_PATH);
 		if (!dir.exists()) {
 			dir.mkdirs();
 		}
 		// 使用 File 构造器正确拼接路径，避免跨平台路径分隔符问题
-		File publicKeyFile = new File(dir, PUBLIC_KEY_FILENAME);
-		File privateKeyFile = new File(dir, PRIVATE_KEY_FILENAME);
+		File publicKeyFile = new File(dir, prefix + PUBLIC_KEY_FILENAME);
+		File privateKeyFile = new File(dir, prefix + PRIVATE_KEY_FILENAME);
 		
 		try (OutputStreamWriter publicWriter = new OutputStreamWriter(
 				new FileOutputStream(publicKeyFile), StandardCharsets.UTF_8)) {
@@ -100,17 +183,19 @@ public class RSAUtil {
 	/**
 	 * 从文件读取密钥
 	 *
+	 * @param prefix    密钥文件名前缀
+	 * @param algorithm 签名算法
 	 * @return keyMap
 	 * @throws Exception e
 	 */
-	private static KeyPair loadKey() throws Exception {
+	private static KeyPair loadKey(String prefix, JwtAlgorithm algorithm) throws Exception {
 		// 使用 File 构造器正确拼接路径，避免跨平台路径分隔符问题
 		File dir = new File(LOCAL_KEY_PATH);
-		File publicKeyFile = new File(dir, PUBLIC_KEY_FILENAME);
-		File privateKeyFile = new File(dir, PRIVATE_KEY_FILENAME);
+		File publicKeyFile = new File(dir, prefix + PUBLIC_KEY_FILENAME);
+		File privateKeyFile = new File(dir, prefix + PRIVATE_KEY_FILENAME);
 		
-		PublicKey publicKey = loadPublicKey(publicKeyFile.getPath());
-		PrivateKey privateKey = loadPrivateKey(privateKeyFile.getPath());
+		PublicKey publicKey = loadPublicKey(publicKeyFile.getPath(), algorithm);
+		PrivateKey privateKey = loadPrivateKey(privateKeyFile.getPath(), algorithm);
 		if (ObjectUtils.isEmpty(publicKey) || ObjectUtils.isEmpty(privateKey)) {
 			throw new Exception("load key failed");
 		}
@@ -123,39 +208,41 @@ public class RSAUtil {
 	/**
 	 * 从文件中读取公钥
 	 *
-	 * @param filename 公钥保存路径，相对于classpath
+	 * @param filename  公钥保存路径，相对于classpath
+	 * @param algorithm 签名算法
 	 * @return 公钥对象
 	 * @throws Exception e
 	 */
-	private static PublicKey loadPublicKey(String filename) throws Exception {
+	private static PublicKey loadPublicKey(String filename, JwtAlgorithm algorithm) throws Exception {
 		String publicKey = readFile(filename);
-		return base642PublicKey(publicKey);
+		return base642PublicKey(publicKey, algorithm);
 	}
 	
 	/**
 	 * 从文件中读取私钥
 	 *
-	 * @param filename 私钥保存路径，相对于classpath
+	 * @param filename  私钥保存路径，相对于classpath
+	 * @param algorithm 签名算法
 	 * @return 私钥对象
 	 * @throws Exception
 	 */
-	private static PrivateKey loadPrivateKey(String filename) throws Exception {
+	private static PrivateKey loadPrivateKey(String filename, JwtAlgorithm algorithm) throws Exception {
 		String privateKey = readFile(filename);
-		return base642PrivateKey(privateKey);
+		return base642PrivateKey(privateKey, algorithm);
 	}
 	
-	private static PublicKey base642PublicKey(String publicKey64) throws NoSuchAlgorithmException,
+	private static PublicKey base642PublicKey(String publicKey64, JwtAlgorithm algorithm) throws NoSuchAlgorithmException,
 			InvalidKeySpecException {
 		//base64转key
-		KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
+		KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyAlgorithm());
 		X509EncodedKeySpec keySpec = new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey64));
 		return keyFactory.generatePublic(keySpec);
 	}
 	
-	private static PrivateKey base642PrivateKey(String privateKey64) throws NoSuchAlgorithmException,
+	private static PrivateKey base642PrivateKey(String privateKey64, JwtAlgorithm algorithm) throws NoSuchAlgorithmException,
 			InvalidKeySpecException {
 		//base64转key
-		KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
+		KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyAlgorithm());
 		PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey64));
 		return keyFactory.generatePrivate(keySpec);
 	}
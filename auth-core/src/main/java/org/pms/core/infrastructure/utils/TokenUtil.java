@@ -1,14 +1,29 @@
 package org.pms.core.infrastructure.utils;
 
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
+import org.pms.api.dto.TokenType;
+import org.pms.api.utils.PermissionDictionary;
 import org.pms.core.domain.model.entity.LoginUser;
+import org.pms.core.domain.model.valobj.RefreshSessionVO;
 import org.pms.core.domain.model.valobj.UserTokenVO;
-import org.pms.core.infrastructure.redis.RedisUtil;
+import org.pms.core.infrastructure.cache.RolePermissionCache;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.pms.core.infrastructure.redis.RefreshSessionStore;
+import org.pms.core.infrastructure.redis.RefreshSessionStore.Rotation;
+import org.pms.core.infrastructure.redis.RefreshSessionStore.RotationResult;
+import org.pms.core.infrastructure.redis.RevocationStore;
+import org.pms.core.initialization.AuthRunner;
 import org.pms.types.AuthCode;
 import org.pms.types.AuthConstants;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * @author alcsyooterranf
  */
@@ -18,81 +33,220 @@ public class TokenUtil {
 	
 	private static final Long ACCESS_EXPIRATION = AuthConstants.ACCESS_EXPIRATION;
 	private static final Long REFRESH_EXPIRATION = AuthConstants.REFRESH_EXPIRATION;
-	private static final String REDIS_KEY_PREFIX_ACCESS = AuthConstants.REDIS_KEY_PREFIX_ACCESS;
-	private static final String REDIS_KEY_PREFIX_REFRESH = AuthConstants.REDIS_KEY_PREFIX_REFRESH;
 	
-	private final RedisUtil redisUtil;
+	private final RefreshSessionStore refreshSessionStore;
+	private final RevocationStore revocationStore;
+	private final RolePermissionCache rolePermissionCache;
+	private final KeyDelivery keyDelivery;
+	private final PermissionEncoding permissionEncoding;
+	private final boolean rotationEnabled;
 	
-	public TokenUtil(RedisUtil redisUtil) {
-		this.redisUtil = redisUtil;
+	public TokenUtil(RefreshSessionStore refreshSessionStore,
+					 RevocationStore revocationStore,
+					 RolePermissionCache rolePermissionCache,
+					 @Value("${auth.token.key-delivery:full}") String keyDelivery,
+					 @Value("${auth.token.permission-encoding:names}") String permissionEncoding,
+					 @Value("${auth.token.rotation.enabled:false}") boolean rotationEnabled) {
+		this.refreshSessionStore = refreshSessionStore;
+		this.revocationStore = revocationStore;
+		this.rolePermissionCache = rolePermissionCache;
+		this.keyDelivery = KeyDelivery.of(keyDelivery);
+		this.permissionEncoding = PermissionEncoding.of(permissionEncoding);
+		this.rotationEnabled = rotationEnabled;
 	}
 	
 	public String genAccessToken(LoginUser user, String jti) {
-		return JwtUtil.generateToken(user, jti, ACCESS_EXPIRATION);
+		return JwtUtil.generateToken(user, jti, ACCESS_EXPIRATION, TokenType.ACCESS, accessDictionary());
 	}
 	
 	public String genRefreshToken(LoginUser user, String jti) {
-		return JwtUtil.generateToken(user, jti, REFRESH_EXPIRATION);
-	}
-	
-	public void saveAccessToken(String jti, String token) {
-		saveToken(REDIS_KEY_PREFIX_ACCESS, jti, token, ACCESS_EXPIRATION);
+		return JwtUtil.generateToken(user, jti, REFRESH_EXPIRATION, TokenType.REFRESH);
 	}
 	
-	public void saveRefreshToken(String jti, String token) {
-		saveToken(REDIS_KEY_PREFIX_REFRESH, jti, token, REFRESH_EXPIRATION);
+	/**
+	 * 构造refreshToken会话记录
+	 *
+	 * @param user   登录用户
+	 * @param jti    refreshToken的jti
+	 * @param device 设备标识, 可为空
+	 * @return 会话记录
+	 */
+	public RefreshSessionVO newRefreshSession(LoginUser user, String jti, String device) {
+		return RefreshSessionVO.builder()
+				.jti(jti)
+				.userId(user.getUserAggregate().getId())
+				.issuedAt(System.currentTimeMillis() / 1000)
+				.device(device)
+				.build();
 	}
 	
 	/**
-	 * 需要捕获redis异常
+	 * 保存refreshToken会话记录, 不再保存完整的refreshToken
 	 *
-	 * @param prefix     token前缀
-	 * @param jti        tokenId
-	 * @param token      token
-	 * @param expiration 过期时间
+	 * @param session 会话记录
 	 */
-	private void saveToken(String prefix, String jti, String token, Long expiration) {
-		redisUtil.set(prefix + jti, token, expiration);
+	public void saveRefreshSession(RefreshSessionVO session) {
+		refreshSessionStore.save(session, REFRESH_EXPIRATION);
 	}
 	
 	/**
 	 * 根据 refreshToken 刷新 accessToken
+	 * 开启轮换时同时签发新的refreshToken, 旧refreshToken随即失效
 	 *
 	 * @param tokenVO tokenVO
+	 * @return 刷新结果对应的refreshToken会话jti
 	 */
-	public void refreshToken(UserTokenVO tokenVO) {
-		String refreshToken = tokenVO.getRefreshToken();
-		String jti = JwtUtil.getJTIFromToken(refreshToken);
+	public String refreshToken(UserTokenVO tokenVO) {
+		Claims claims = JwtUtil.getClaimsFromToken(tokenVO.getRefreshToken());
+		if (rotationEnabled) {
+			return rotateRefreshToken(tokenVO, claims);
+		}
 		// 1. refreshToken存在性检验
-		isRefreshTokenExist(jti);
-		// 2. 生成新的accessToken
-		String accessToken = JwtUtil.refreshToken(refreshToken, ACCESS_EXPIRATION);
-//        // 3. 如果refreshToken快过期了，则同时刷新refreshToken
-//        if (JwtUtil.canRefresh(refreshToken)) {
-//            redisUtil.expire(REDIS_KEY_PREFIX_REFRESH + jti, REFRESH_EXPIRATION);
-//        }
-		// 4.更新UserTokenVO
-		tokenVO.setAccessToken(accessToken);
-//        tokenVO.setRefreshToken(refreshToken);
+		isRefreshTokenExist(claims);
+		// 2. 生成新的accessToken并更新UserTokenVO
+		tokenVO.setAccessToken(JwtUtil.reissue(claims, UUID.randomUUID().toString(), ACCESS_EXPIRATION, TokenType.ACCESS,
+				accessDictionary()));
+		return claims.getId();
+	}
+	
+	/**
+	 * accessToken使用的权限字典, 未开启位图编码时为空
+	 * refreshToken始终以字符串数组携带权限, 刷新时按当时的字典重新编码
+	 *
+	 * @return 权限字典
+	 */
+	private PermissionDictionary accessDictionary() {
+		return permissionEncoding == PermissionEncoding.BITSET ? rolePermissionCache.getDictionary() : null;
+	}
+	
+	/**
+	 * 轮换refreshToken
+	 * 先通过一次脚本调用消费旧jti并登记新jti, 再按脚本返回的结果签发; 被拒绝的刷新不做任何签名运算。
+	 * 并发重试同一refreshToken时只有一个请求消费成功, 宽限期内的其余请求以同一个继任jti签发refreshToken,
+	 * 超过宽限期的再次使用被视为重放, 该登录的refreshToken全部失效
+	 *
+	 * @param tokenVO tokenVO
+	 * @param claims  旧refreshToken的荷载
+	 * @return 继任会话的jti
+	 */
+	private String rotateRefreshToken(UserTokenVO tokenVO, Claims claims) {
+		String jti = claims.getId();
+		Long userId = JwtUtil.getUserId(claims);
+		String newJti = UUID.randomUUID().toString();
+		Rotation rotation = refreshSessionStore.rotate(jti, newJti, userId, REFRESH_EXPIRATION);
+		if (rotation.result() == RotationResult.NOT_FOUND && refreshSessionStore.migrateLegacy(legacySession(claims))) {
+			rotation = refreshSessionStore.rotate(jti, newJti, userId, REFRESH_EXPIRATION);
+		}
+		if (rotation.result() == RotationResult.REUSED) {
+			log.warn("refreshToken被重复使用, 已撤销该登录的refreshToken, userId: {}, jti: {}", userId, jti);
+		}
+		if (rotation.result() != RotationResult.ROTATED && rotation.result() != RotationResult.RETRIED) {
+			log.error("异常代码: {}, 异常信息: {}", AuthCode.REFRESH_TOKEN_NOT_EXIST.getCode(),
+					AuthCode.REFRESH_TOKEN_NOT_EXIST.getMessage());
+			throw new RuntimeException(AuthCode.REFRESH_TOKEN_NOT_EXIST.getMessage());
+		}
+		String successor = newJti;
+		if (rotation.result() == RotationResult.RETRIED) {
+			// 并发重试已由其他请求轮换, 返回指向同一继任会话的refreshToken
+			log.info("refreshToken在宽限期内重试, 沿用已轮换的会话, userId: {}, jti: {}", userId, jti);
+			successor = rotation.successor();
+		}
+		tokenVO.setAccessToken(JwtUtil.reissue(claims, UUID.randomUUID().toString(), ACCESS_EXPIRATION, TokenType.ACCESS,
+				accessDictionary()));
+		tokenVO.setRefreshToken(JwtUtil.reissue(claims, successor, REFRESH_EXPIRATION, TokenType.REFRESH));
+		return successor;
+	}
+	
+	/**
+	 * 按 auth.token.key-delivery 在响应中附带公钥信息
+	 * 始终返回keyId, 仅FULL模式返回完整公钥; 两者均为密钥加载时预先计算好的字符串
+	 *
+	 * @param tokenVO tokenVO
+	 */
+	public void attachPublicKey(UserTokenVO tokenVO) {
+		SigningKey signingKey = AuthRunner.getActiveKey();
+		tokenVO.setKeyId(signingKey.getKid());
+		if (keyDelivery == KeyDelivery.FULL) {
+			tokenVO.setPublicKey64(signingKey.getMaterial().getBase64());
+		}
 	}
 	
 	public boolean removeToken(String token) {
-		String jti = JwtUtil.getJTIFromToken(token);
+		Claims claims = JwtUtil.getClaimsFromToken(token);
 		SecurityContextHolder.clearContext();
-		return redisUtil.del(REDIS_KEY_PREFIX_REFRESH + jti);
+		return refreshSessionStore.remove(claims.getId(), JwtUtil.getUserId(claims));
+	}
+	
+	/**
+	 * 撤销accessToken, Consumer端同步撤销列表后拒绝该token
+	 * token须验签通过, 已过期的token无需撤销
+	 *
+	 * @param accessToken accessToken
+	 */
+	public void revokeAccessToken(String accessToken) {
+		revocationStore.revoke(JwtUtil.getJTIFromToken(accessToken));
+	}
+	
+	/**
+	 * 获取撤销时间不早于cursor的accessToken撤销条目
+	 *
+	 * @param cursor 游标, 首次传0
+	 * @return jti -> 撤销时间（毫秒）
+	 */
+	public Map<String, Long> getRevocationsSince(long cursor) {
+		return revocationStore.since(cursor);
+	}
+	
+	/**
+	 * 撤销用户的全部refreshToken
+	 *
+	 * @param userId 用户ID
+	 * @return 撤销的会话数
+	 */
+	public int revokeAllForUser(Long userId) {
+		return refreshSessionStore.revokeAll(userId);
+	}
+	
+	/**
+	 * 列出用户当前的refreshToken会话
+	 *
+	 * @param userId 用户ID
+	 * @return 会话列表, 按签发时间从新到旧排列
+	 */
+	public List<RefreshSessionVO> listSessions(Long userId) {
+		return refreshSessionStore.listSessions(userId);
+	}
+	
+	/**
+	 * 判断refreshToken会话是否存在
+	 *
+	 * @param jti refreshToken的jti
+	 * @return 会话是否存在
+	 */
+	public boolean isRefreshSessionActive(String jti) {
+		return refreshSessionStore.exists(jti);
 	}
 	
 	/**
 	 * 判断refreshToken是否存在
+	 * 会话记录不存在时尝试迁移旧格式的key, 会话记录由refreshToken的荷载构造
 	 *
-	 * @param jti jwtTokenId
+	 * @param claims refreshToken的荷载
 	 */
-	public void isRefreshTokenExist(String jti) {
-		if (!redisUtil.hasKey(REDIS_KEY_PREFIX_REFRESH + jti)) {
+	private void isRefreshTokenExist(Claims claims) {
+		if (!refreshSessionStore.exists(claims.getId()) && !refreshSessionStore.migrateLegacy(legacySession(claims))) {
 			log.error("异常代码: {}, 异常信息: {}", AuthCode.REFRESH_TOKEN_NOT_EXIST.getCode(),
 					AuthCode.REFRESH_TOKEN_NOT_EXIST.getMessage());
 			throw new RuntimeException(AuthCode.REFRESH_TOKEN_NOT_EXIST.getMessage());
 		}
 	}
 	
+	private static RefreshSessionVO legacySession(Claims claims) {
+		return RefreshSessionVO.builder()
+				.jti(claims.getId())
+				.userId(JwtUtil.getUserId(claims))
+				.issuedAt(claims.getIssuedAt().getTime() / 1000)
+				.build();
+	}
+	
 }
@@ -1,8 +1,12 @@
 package org.pms.core.initialization;
 
 import lombok.extern.slf4j.Slf4j;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.pms.core.infrastructure.key.SigningKeyRing;
+import org.pms.core.infrastructure.utils.JwtAlgorithm;
 import org.pms.core.infrastructure.utils.RSAUtil;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.KeyPair;
@@ -21,31 +25,86 @@ import java.security.PublicKey;
 @Component
 public class AuthRunner implements InitializingBean {
 	
-	// RSA密钥对（供 JwtUtil 使用）
-	private static PublicKey publicKey;
-	private static PrivateKey privateKey;
+	// 签名密钥环及算法（供 JwtUtil 使用）
+	private static volatile SigningKeyRing keyRing;
+	private static JwtAlgorithm algorithm;
 	private static volatile boolean initialized = false;
 	
 	/**
-	 * 获取RSA公钥
+	 * JWT签名算法，可选RS256、ES256、EdDSA
+	 */
+	@Value("${auth.jwt.algorithm:RS256}")
+	private String jwtAlgorithm;
+	
+	/**
+	 * 获取当前签发用公钥
 	 *
-	 * @return RSA公钥
+	 * @return 公钥
 	 * @throws IllegalStateException 如果密钥尚未初始化
 	 */
 	public static PublicKey getPublicKey() {
-		checkInitialized();
-		return publicKey;
+		return getActiveKey().getPublicKey();
 	}
 	
 	/**
-	 * 获取RSA私钥
+	 * 获取当前签发用私钥
 	 *
-	 * @return RSA私钥
+	 * @return 私钥
 	 * @throws IllegalStateException 如果密钥尚未初始化
 	 */
 	public static PrivateKey getPrivateKey() {
+		return getActiveKey().getPrivateKey();
+	}
+	
+	/**
+	 * 获取JWT签名算法
+	 *
+	 * @return 签名算法
+	 * @throws IllegalStateException 如果密钥尚未初始化
+	 */
+	public static JwtAlgorithm getAlgorithm() {
+		return getActiveKey().getAlgorithm();
+	}
+	
+	/**
+	 * 获取当前签发用密钥
+	 * 签发token时应只读取一次, 保证kid、私钥和算法来自同一个密钥
+	 *
+	 * @return 签名密钥
+	 * @throws IllegalStateException 如果密钥尚未初始化
+	 */
+	public static SigningKey getActiveKey() {
+		return getKeyRing().getActiveKey();
+	}
+	
+	/**
+	 * 获取签名密钥环（当前密钥和轮换前密钥）
+	 *
+	 * @return 签名密钥环
+	 * @throws IllegalStateException 如果密钥尚未初始化
+	 */
+	public static SigningKeyRing getKeyRing() {
 		checkInitialized();
-		return privateKey;
+		return keyRing;
+	}
+	
+	/**
+	 * 轮换签名密钥
+	 * 生成新密钥作为当前密钥, 原当前密钥保留用于验签轮换前签发、尚未过期的token
+	 * 新密钥环构建完成后整体替换引用, 不影响正在签发和验签的线程
+	 * 只轮换本实例的密钥文件, 不同步到其他实例, 见 {@link KeyRotationTask} 的单签发实例约束
+	 */
+	public static synchronized void rotateKeys() {
+		checkInitialized();
+		try {
+			KeyPair keyPair = RSAUtil.rotateKeyPair(algorithm);
+			SigningKey newKey = new SigningKey(keyPair, algorithm, System.currentTimeMillis());
+			keyRing = keyRing.rotate(newKey);
+			log.info("签名密钥轮换成功, kid: {}", newKey.getKid());
+		} catch (Exception e) {
+			log.error("签名密钥轮换失败: {}", e.getMessage(), e);
+			throw new RuntimeException("签名密钥轮换失败", e);
+		}
 	}
 	
 	private static void checkInitialized() {
@@ -58,26 +117,31 @@ public class AuthRunner implements InitializingBean {
 	public void afterPropertiesSet() throws Exception {
 		log.info("========== 应用初始化开始 ==========");
 		
-		// 1. 初始化RSA密钥对
-		initRSAKeys();
+		// 1. 初始化签名密钥对
+		initKeys();
 		
 		initialized = true;
 		log.info("========== 应用初始化完成 ==========");
 	}
 	
 	/**
-	 * 初始化RSA密钥对
+	 * 按配置的签名算法初始化密钥对
 	 */
-	private void initRSAKeys() {
-		log.info("开始初始化RSA密钥...");
+	private void initKeys() {
+		JwtAlgorithm configured = JwtAlgorithm.of(jwtAlgorithm);
+		log.info("开始初始化{}密钥...", configured);
 		try {
-			KeyPair keyPair = RSAUtil.getKeyPair();
-			publicKey = keyPair.getPublic();
-			privateKey = keyPair.getPrivate();
-			log.info("RSA密钥初始化成功");
+			KeyPair keyPair = RSAUtil.getKeyPair(configured);
+			KeyPair previousKeyPair = RSAUtil.getPreviousKeyPair(configured);
+			SigningKey activeKey = new SigningKey(keyPair, configured, RSAUtil.getKeyCreatedAt(configured, false));
+			SigningKey previousKey = previousKeyPair == null ? null
+					: new SigningKey(previousKeyPair, configured, RSAUtil.getKeyCreatedAt(configured, true));
+			keyRing = new SigningKeyRing(activeKey, previousKey);
+			algorithm = configured;
+			log.info("{}密钥初始化成功, kid: {}", configured, activeKey.getKid());
 		} catch (Exception e) {
-			log.error("RSA密钥初始化失败: {}", e.getMessage(), e);
-			throw new RuntimeException("RSA密钥初始化失败，应用无法启动", e);
+			log.error("{}密钥初始化失败: {}", configured, e.getMessage(), e);
+			throw new RuntimeException(configured + "密钥初始化失败，应用无法启动", e);
 		}
 	}
 	
@@ -0,0 +1,109 @@
+package org.pms.core.initialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.pms.types.AuthConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * 签名密钥定时轮换任务
+ * 通过 auth.jwt.rotation.enabled=true 开启, 定期检查当前密钥的创建时间, 超过轮换周期时生成新密钥
+ * <p>
+ * 密钥环只保留当前密钥和上一个密钥, 轮换周期应不小于refreshToken有效期,
+ * 否则两次轮换前签发的refreshToken将无法验签
+ * <p>
+ * 单签发实例约束: 密钥文件保存在各实例本地, 轮换不在实例之间同步。多个Auth实例各自轮换时,
+ * 各实例的签名密钥和Consumer端拉取到的公钥环会不一致, 因此只支持在单个签发实例上开启轮换。
+ * 开启轮换的实例在Redis中持有 {@value #OWNER_KEY} 租约, 租约被其他实例持有时不轮换并记录错误日志;
+ * 多实例部署应关闭轮换, 由运维统一替换各实例的密钥文件后依次重启
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "auth.jwt.rotation", name = "enabled", havingValue = "true")
+public class KeyRotationTask {
+	
+	/**
+	 * 密钥轮换租约, 值为持有租约的实例标识
+	 */
+	static final String OWNER_KEY = "auth:signing_key:rotation_owner";
+	
+	/**
+	 * 租约时长为检查间隔的倍数, 持有实例停止后租约在该时间后过期
+	 */
+	private static final int OWNER_LEASE_CHECKS = 3;
+	
+	private final Duration interval;
+	private final Duration ownerLease;
+	private final StringRedisTemplate stringRedisTemplate;
+	
+	/**
+	 * 本实例标识（pid@主机名）
+	 */
+	private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+	
+	public KeyRotationTask(@Value("${auth.jwt.rotation.interval:P30D}") Duration interval,
+						   @Value("${auth.jwt.rotation.check-interval:PT1H}") Duration checkInterval,
+						   StringRedisTemplate stringRedisTemplate) {
+		this.interval = interval;
+		this.ownerLease = checkInterval.multipliedBy(OWNER_LEASE_CHECKS);
+		this.stringRedisTemplate = stringRedisTemplate;
+		if (interval.getSeconds() < AuthConstants.REFRESH_EXPIRATION) {
+			log.warn("密钥轮换周期({})小于refreshToken有效期({}s), 轮换两次后旧refreshToken将无法验签",
+					interval, AuthConstants.REFRESH_EXPIRATION);
+		}
+	}
+	
+	/**
+	 * 检查并轮换签名密钥
+	 * 以密钥创建时间为准而非服务启动时间, 服务重启不会推迟轮换; 未持有轮换租约时不轮换
+	 */
+	@Scheduled(initialDelayString = "${auth.jwt.rotation.check-interval:PT1H}",
+			fixedDelayString = "${auth.jwt.rotation.check-interval:PT1H}")
+	public void rotateIfDue() {
+		if (!holdOwnerLease()) {
+			return;
+		}
+		SigningKey activeKey = AuthRunner.getActiveKey();
+		long age = System.currentTimeMillis() - activeKey.getCreatedAt();
+		if (age >= interval.toMillis()) {
+			log.info("签名密钥已使用{}ms, 超过轮换周期{}, 开始轮换, kid: {}", age, interval, activeKey.getKid());
+			AuthRunner.rotateKeys();
+		}
+	}
+	
+	/**
+	 * 获取或续期轮换租约
+	 *
+	 * @return 本实例是否持有租约
+	 */
+	private boolean holdOwnerLease() {
+		try {
+			if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(OWNER_KEY, instanceId, ownerLease))) {
+				return true;
+			}
+			String owner = stringRedisTemplate.opsForValue().get(OWNER_KEY);
+			if (instanceId.equals(owner)) {
+				stringRedisTemplate.expire(OWNER_KEY, ownerLease);
+				return true;
+			}
+			log.error("密钥轮换租约由实例 {} 持有, 本实例 {} 不轮换; 多个实例各自轮换会使签名密钥不一致, 请只在一个实例上开启轮换",
+					owner, instanceId);
+			return false;
+		} catch (Exception e) {
+			log.warn("获取密钥轮换租约失败, 本次不轮换: {}", e.getMessage());
+			return false;
+		}
+	}
+	
+}
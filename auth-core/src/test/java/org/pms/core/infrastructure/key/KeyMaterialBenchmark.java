@@ -0,0 +1,98 @@
+package org.pms.core.infrastructure.key;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.security.Jwks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pms.core.domain.model.valobj.UserTokenVO;
+import org.pms.core.infrastructure.utils.JwtAlgorithm;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录和刷新响应附带公钥信息的开销: 每次重新编码公钥与使用 {@link KeyMaterial} 中预先计算的字符串的对比
+ * main方法开启GCProfiler, 以 gc.alloc.rate.norm 查看每次请求分配的字节数
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyMaterialBenchmark {
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	
+	private SigningKey signingKey;
+	
+	@Setup
+	public void setUp() throws Exception {
+		JwtAlgorithm algorithm = JwtAlgorithm.RS256;
+		signingKey = new SigningKey(algorithm.newKeyPairGenerator(new SecureRandom()).generateKeyPair(), algorithm, 0);
+	}
+	
+	/**
+	 * 优化前的登录响应: 每次请求对公钥做Base64编码
+	 */
+	@Benchmark
+	public UserTokenVO recomputedPublicKey() {
+		return UserTokenVO.builder()
+				.publicKey64(Base64.getEncoder().encodeToString(signingKey.getPublicKey().getEncoded()))
+				.build();
+	}
+	
+	/**
+	 * 当前的登录响应: 直接使用预先计算的kid和Base64字符串
+	 */
+	@Benchmark
+	public UserTokenVO precomputedPublicKey() {
+		return UserTokenVO.builder()
+				.keyId(signingKey.getKid())
+				.publicKey64(signingKey.getMaterial().getBase64())
+				.build();
+	}
+	
+	/**
+	 * 每次请求重新构建并序列化公钥JWK
+	 */
+	@Benchmark
+	public String recomputedJwkJson() throws Exception {
+		return OBJECT_MAPPER.writeValueAsString(Jwks.builder()
+				.key(signingKey.getPublicKey())
+				.id(signingKey.getKid())
+				.publicKeyUse("sig")
+				.algorithm(signingKey.getAlgorithm().getSignatureAlgorithm().getId())
+				.build());
+	}
+	
+	@Benchmark
+	public String precomputedJwkJson() {
+		return signingKey.getMaterial().getJwkJson();
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(KeyMaterialBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+	
+}
@@ -0,0 +1,57 @@
+package org.pms.core.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BCrypt强度解析及重新哈希判断测试
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+class AdaptivePasswordEncoderTest {
+	
+	@Test
+	void strengthOfBcryptHash() {
+		assertEquals(10, AdaptivePasswordEncoder.strengthOf("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy"));
+		assertEquals(4, AdaptivePasswordEncoder.strengthOf("$2b$04$abc"));
+		assertEquals(31, AdaptivePasswordEncoder.strengthOf("$2y$31$"));
+		assertEquals(5, AdaptivePasswordEncoder.strengthOf(new BCryptPasswordEncoder(5).encode("password")));
+	}
+	
+	@Test
+	void strengthOfMalformedHash() {
+		assertEquals(-1, AdaptivePasswordEncoder.strengthOf(null));
+		assertEquals(-1, AdaptivePasswordEncoder.strengthOf(""));
+		assertEquals(-1, AdaptivePasswordEncoder.strengthOf("$2a$10"));
+		assertEquals(-1, AdaptivePasswordEncoder.strengthOf("{noop}password"));
+		assertEquals(-1, AdaptivePasswordEncoder.strengthOf("$2a$1x$abc"));
+		assertEquals(-1, AdaptivePasswordEncoder.strengthOf("$2a-10$abc"));
+	}
+	
+	@Test
+	void upgradeEncodingWithConfiguredStrength() {
+		AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(5, 4, 12, Duration.ZERO);
+		
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+		assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+		assertFalse(encoder.upgradeEncoding("{noop}password"));
+	}
+	
+	@Test
+	void calibratedStrengthNeverDowngrades() {
+		AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(0, 4, 5, Duration.ZERO);
+		
+		assertEquals(4, encoder.getStrength());
+		assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+	}
+	
+}
@@ -0,0 +1,101 @@
+package org.pms.core.infrastructure.utils;
+
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pms.api.dto.TokenType;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.pms.types.AuthConstants;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录签发token: jjwt按HashMap序列化荷载与 {@link JwtWriter} 直接写出荷载的对比
+ * main方法开启GCProfiler, 以 gc.alloc.rate.norm 查看每次签发分配的字节数; 签名运算本身的耗时和分配随算法不同,
+ * 同一算法下两种方式之差即为荷载组装和序列化的开销
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtWriterBenchmark {
+	
+	private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(
+			new SimpleGrantedAuthority("user:read"),
+			new SimpleGrantedAuthority("user:write"),
+			new SimpleGrantedAuthority("device:read"),
+			new SimpleGrantedAuthority("device:write"),
+			new SimpleGrantedAuthority("ROLE_ADMIN"));
+	
+	@Param({"RS256", "EdDSA"})
+	private JwtAlgorithm algorithm;
+	
+	private SigningKey signingKey;
+	
+	@Setup
+	public void setUp() throws Exception {
+		signingKey = new SigningKey(algorithm.newKeyPairGenerator(new SecureRandom()).generateKeyPair(), algorithm, 0);
+	}
+	
+	/**
+	 * 优化前的签发方式: 荷载放入HashMap, 权限以SimpleGrantedAuthority对象由jjwt反射序列化
+	 */
+	@Benchmark
+	public String jjwtBuilder() {
+		Map<String, Object> claims = new HashMap<>();
+		claims.put(AuthConstants.USER_ID, 42L);
+		claims.put(AuthConstants.USER_NAME, "alice");
+		claims.put(AuthConstants.AUTHORITIES, AUTHORITIES);
+		claims.put(TokenType.CLAIM, TokenType.ACCESS.getCode());
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.header().keyId(signingKey.getKid()).and()
+				.claims(claims)
+				.issuer(AuthConstants.ISS)
+				.id("jti")
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + AuthConstants.ACCESS_EXPIRATION * 1000))
+				.signWith(signingKey.getPrivateKey(), algorithm.getSignatureAlgorithm())
+				.compact();
+	}
+	
+	@Benchmark
+	public String jwtWriter() {
+		long now = System.currentTimeMillis() / 1000;
+		return JwtWriter.write(signingKey, 42L, "alice", AUTHORITIES, TokenType.ACCESS,
+				AuthConstants.ISS, "jti", now, now + AuthConstants.ACCESS_EXPIRATION, null);
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtWriterBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+	
+}
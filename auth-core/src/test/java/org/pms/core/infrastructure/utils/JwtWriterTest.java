@@ -0,0 +1,97 @@
+package org.pms.core.infrastructure.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.pms.api.dto.TokenType;
+import org.pms.api.utils.PermissionDictionary;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.pms.types.AuthConstants;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.SecureRandom;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JwtWriter签发的token由jjwt验签解析, 校验头部和荷载与签发参数一致
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+class JwtWriterTest {
+	
+	/**
+	 * 包含需要转义的引号、反斜杠、控制字符以及代理对字符
+	 */
+	private static final String USERNAME = "用户\"\\\n\t😀name";
+	
+	private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(
+			new SimpleGrantedAuthority("user:read"),
+			new SimpleGrantedAuthority("user:write"),
+			new SimpleGrantedAuthority("ROLE_ADMIN"));
+	
+	private static SigningKey newSigningKey(JwtAlgorithm algorithm) throws Exception {
+		return new SigningKey(algorithm.newKeyPairGenerator(new SecureRandom()).generateKeyPair(), algorithm, 0);
+	}
+	
+	private static Jws<Claims> parse(SigningKey signingKey, String token) {
+		return Jwts.parser().verifyWith(signingKey.getPublicKey()).build().parseSignedClaims(token);
+	}
+	
+	@ParameterizedTest
+	@EnumSource(JwtAlgorithm.class)
+	void writtenTokenVerifiesWithJjwt(JwtAlgorithm algorithm) throws Exception {
+		SigningKey signingKey = newSigningKey(algorithm);
+		long now = System.currentTimeMillis() / 1000;
+		
+		// 多次签发, 覆盖缓冲区和Signature实例从池中复用的情况
+		for (int i = 0; i < 20; i++) {
+			String token = JwtWriter.write(signingKey, 42L, USERNAME, AUTHORITIES, TokenType.ACCESS,
+					"pms-auth", "jti-" + i, now, now + 600, null);
+			
+			Jws<Claims> jws = parse(signingKey, token);
+			assertEquals(signingKey.getKid(), jws.getHeader().getKeyId());
+			assertEquals(algorithm.getSignatureAlgorithm().getId(), jws.getHeader().getAlgorithm());
+			
+			Claims claims = jws.getPayload();
+			assertEquals(42L, ((Number) claims.get(AuthConstants.USER_ID)).longValue());
+			assertEquals(USERNAME, claims.get(AuthConstants.USER_NAME));
+			assertEquals(List.of("user:read", "user:write", "ROLE_ADMIN"), claims.get(AuthConstants.AUTHORITIES));
+			assertEquals(TokenType.ACCESS.getCode(), claims.get(TokenType.CLAIM));
+			assertEquals("pms-auth", claims.getIssuer());
+			assertEquals("jti-" + i, claims.getId());
+			assertEquals(now, claims.getIssuedAt().getTime() / 1000);
+			assertEquals(now + 600, claims.getExpiration().getTime() / 1000);
+		}
+	}
+	
+	@ParameterizedTest
+	@EnumSource(JwtAlgorithm.class)
+	void writtenTokenCarriesPermissionBits(JwtAlgorithm algorithm) throws Exception {
+		SigningKey signingKey = newSigningKey(algorithm);
+		PermissionDictionary dictionary = PermissionDictionary.of(List.of("device:read", "user:read", "user:write"));
+		long now = System.currentTimeMillis() / 1000;
+		
+		String token = JwtWriter.write(signingKey, null, "alice", AUTHORITIES, TokenType.REFRESH,
+				"pms-auth", "jti", now, now + 600, dictionary);
+		
+		Claims claims = parse(signingKey, token).getPayload();
+		assertNull(claims.get(AuthConstants.USER_ID));
+		assertEquals(List.of("ROLE_ADMIN"), claims.get(AuthConstants.AUTHORITIES));
+		assertEquals(TokenType.REFRESH.getCode(), claims.get(TokenType.CLAIM));
+		assertEquals(dictionary.getVersion(), claims.get(PermissionDictionary.VERSION_CLAIM));
+		BitSet bits = dictionary.decode((String) claims.get(PermissionDictionary.BITS_CLAIM));
+		assertEquals(2, bits.cardinality());
+		assertTrue(bits.get(dictionary.indexOf("user:read")));
+		assertTrue(bits.get(dictionary.indexOf("user:write")));
+	}
+	
+}
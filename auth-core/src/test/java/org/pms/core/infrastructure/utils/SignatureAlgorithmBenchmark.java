@@ -0,0 +1,82 @@
+package org.pms.core.infrastructure.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pms.api.dto.TokenType;
+import org.pms.core.infrastructure.key.SigningKey;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各签名算法签发和验签一个登录token的耗时
+ * 签发走登录使用的 {@link JwtWriter}, 验签使用只构建一次的jjwt JwtParser, 与Consumer端一致
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignatureAlgorithmBenchmark {
+	
+	private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(
+			new SimpleGrantedAuthority("user:read"),
+			new SimpleGrantedAuthority("user:write"),
+			new SimpleGrantedAuthority("ROLE_ADMIN"));
+	
+	@Param
+	private JwtAlgorithm algorithm;
+	
+	private SigningKey signingKey;
+	private JwtParser parser;
+	private String token;
+	private long now;
+	
+	@Setup
+	public void setUp() throws Exception {
+		signingKey = new SigningKey(algorithm.newKeyPairGenerator(new SecureRandom()).generateKeyPair(), algorithm, 0);
+		parser = Jwts.parser().verifyWith(signingKey.getPublicKey()).build();
+		now = System.currentTimeMillis() / 1000;
+		token = sign();
+	}
+	
+	@Benchmark
+	public String sign() {
+		return JwtWriter.write(signingKey, 42L, "alice", AUTHORITIES, TokenType.ACCESS,
+				"pms", "jti", now, now + 3600, null);
+	}
+	
+	@Benchmark
+	public Claims verify() {
+		return parser.parseSignedClaims(token).getPayload();
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(SignatureAlgorithmBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+	
+}
@@ -3,6 +3,7 @@ package org.pms;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 认证服务启动类
@@ -12,6 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 2025/11/25
  */
 @Configurable
+@EnableScheduling
 @SpringBootApplication
 public class Application {
 	
@@ -0,0 +1,222 @@
+package org.pms;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * /auth/login 和 /auth/refresh 的压测工具, 用于对比平台线程和虚拟线程两种构建在高并发下的吞吐量和延迟
+ * <p>
+ * 被测服务需要可用的MySQL和Redis, 以及harness.username对应的用户, 分别以两种方式构建并启动:
+ * <pre>
+ * 平台线程: mvn -B -Pdev package -DskipTests && java -jar auth-starter/target/auth-starter.jar
+ * 虚拟线程（JDK 21）: mvn -B -Pdev,virtual-threads package -DskipTests && java -jar auth-starter/target/auth-starter.jar
+ * </pre>
+ * 对每种构建运行本类main方法（test classpath, 不属于单元测试）, 比较输出的吞吐量、p50和p99; 参数以系统属性传入:
+ * <pre>
+ * -Dharness.url=http://localhost:8080 -Dharness.endpoint=login|refresh -Dharness.concurrency=200
+ * -Dharness.duration=PT30S -Dharness.username=alice -Dharness.password=123456
+ * </pre>
+ * 客户端每个并发使用一个线程循环发送同步请求; login被拒绝（429/503）单独计数, refresh每个并发先登录一次,
+ * 之后始终使用上一次刷新返回的refreshToken
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+public class AuthLoadHarness {
+	
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	
+	private final HttpClient httpClient;
+	private final String url;
+	private final String username;
+	private final String password;
+	
+	public AuthLoadHarness(HttpClient httpClient, String url, String username, String password) {
+		this.httpClient = httpClient;
+		this.url = url;
+		this.username = username;
+		this.password = password;
+	}
+	
+	public static void main(String[] args) throws Exception {
+		String endpoint = System.getProperty("harness.endpoint", "login");
+		int concurrency = Integer.getInteger("harness.concurrency", 200);
+		Duration duration = Duration.parse(System.getProperty("harness.duration", "PT30S"));
+		HttpClient httpClient = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(5))
+				.executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+				.build();
+		AuthLoadHarness harness = new AuthLoadHarness(httpClient,
+				System.getProperty("harness.url", "http://localhost:8080"),
+				System.getProperty("harness.username", "alice"),
+				System.getProperty("harness.password", "123456"));
+		
+		Result result = harness.run(endpoint, concurrency, duration);
+		System.out.println(result.report(endpoint, concurrency, duration));
+		System.exit(0);
+	}
+	
+	/**
+	 * 以给定并发持续压测一个接口
+	 *
+	 * @param endpoint    login 或 refresh
+	 * @param concurrency 并发数
+	 * @param duration    持续时间
+	 * @return 所有并发的合并结果
+	 */
+	public Result run(String endpoint, int concurrency, Duration duration) throws Exception {
+		boolean refresh = "refresh".equals(endpoint);
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		try {
+			long deadline = System.nanoTime() + duration.toNanos();
+			List<Future<Result>> futures = new ArrayList<>(concurrency);
+			for (int i = 0; i < concurrency; i++) {
+				futures.add(workers.submit(() -> refresh ? refreshLoop(deadline) : loginLoop(deadline)));
+			}
+			Result total = new Result();
+			for (Future<Result> future : futures) {
+				total.merge(future.get());
+			}
+			return total;
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+	
+	private Result loginLoop(long deadline) {
+		Result result = new Result();
+		while (System.nanoTime() < deadline) {
+			long start = System.nanoTime();
+			try {
+				HttpResponse<String> response = httpClient.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+				result.record(response.statusCode(), refreshTokenOf(response) != null, System.nanoTime() - start);
+			} catch (Exception e) {
+				result.errors++;
+			}
+		}
+		return result;
+	}
+	
+	private Result refreshLoop(long deadline) {
+		Result result = new Result();
+		String refreshToken = login();
+		while (System.nanoTime() < deadline) {
+			if (refreshToken == null) {
+				result.errors++;
+				refreshToken = login();
+				continue;
+			}
+			long start = System.nanoTime();
+			try {
+				HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/auth/refresh"))
+						.header("Authorization", "Bearer " + refreshToken)
+						.POST(HttpRequest.BodyPublishers.noBody())
+						.build();
+				HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+				String next = refreshTokenOf(response);
+				result.record(response.statusCode(), next != null, System.nanoTime() - start);
+				refreshToken = next;
+			} catch (Exception e) {
+				result.errors++;
+				refreshToken = null;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * 登录一次, 返回refreshToken, 失败时返回null
+	 */
+	private String login() {
+		try {
+			return refreshTokenOf(httpClient.send(loginRequest(), HttpResponse.BodyHandlers.ofString()));
+		} catch (Exception e) {
+			return null;
+		}
+	}
+	
+	private HttpRequest loginRequest() {
+		String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+				+ "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+		return HttpRequest.newBuilder(URI.create(url + "/auth/login"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.timeout(Duration.ofSeconds(30))
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build();
+	}
+	
+	private static String refreshTokenOf(HttpResponse<String> response) throws Exception {
+		if (response.statusCode() != 200) {
+			return null;
+		}
+		JsonNode refreshToken = OBJECT_MAPPER.readTree(response.body()).path("data").path("refreshToken");
+		return refreshToken.isTextual() ? refreshToken.asText() : null;
+	}
+	
+	/**
+	 * 压测结果: 成功请求的延迟（纳秒）、被拒绝和失败的请求数
+	 */
+	public static final class Result {
+		
+		private long[] latencies = new long[1024];
+		private int size;
+		private long rejected;
+		private long errors;
+		
+		void record(int status, boolean success, long latencyNanos) {
+			if (status == 429 || status == 503) {
+				rejected++;
+			} else if (!success) {
+				errors++;
+			} else {
+				if (size == latencies.length) {
+					latencies = Arrays.copyOf(latencies, size * 2);
+				}
+				latencies[size++] = latencyNanos;
+			}
+		}
+		
+		void merge(Result other) {
+			if (size + other.size > latencies.length) {
+				latencies = Arrays.copyOf(latencies, size + other.size);
+			}
+			System.arraycopy(other.latencies, 0, latencies, size, other.size);
+			size += other.size;
+			rejected += other.rejected;
+			errors += other.errors;
+		}
+		
+		String report(String endpoint, int concurrency, Duration duration) {
+			long[] sorted = Arrays.copyOf(latencies, size);
+			Arrays.sort(sorted);
+			return String.format("endpoint=%s concurrency=%d duration=%ds ok=%d rejected=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms",
+					endpoint, concurrency, duration.toSeconds(), size, rejected, errors,
+					size / (double) duration.toSeconds(), percentile(sorted, 0.50), percentile(sorted, 0.99));
+		}
+		
+		private static double percentile(long[] sorted, double p) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(p * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1_000_000.0;
+		}
+	
+	}
+	
+}
@@ -0,0 +1,152 @@
+package org.pms.core.infrastructure.mapper;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pms.core.infrastructure.mapper.po.UserAuthPO;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 在嵌入式数据库（H2, MySQL模式）上执行 user_mapper.xml, 统计登录查询向数据库发出的语句数
+ * 登录时用户和角色由 selectUserAuthByName 一次查询得到, 权限由角色id从缓存获取; 优化前每次登录需要三次查询
+ *
+ * @author alcsyooterranf
+ * @version 1.0
+ * @since 2026/10/17
+ */
+class IUserMapperTest {
+	
+	private static final String MAPPER_XML = "mybatis/mapper/user_mapper.xml";
+	
+	private static final StatementCounter STATEMENTS = new StatementCounter();
+	
+	private static SqlSessionFactory sqlSessionFactory;
+	
+	@BeforeAll
+	static void setUpDatabase() throws Exception {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:auth;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		try (Connection connection = dataSource.getConnection();
+			 Reader schema = Resources.getResourceAsReader("db/schema-h2.sql")) {
+			ScriptRunner scriptRunner = new ScriptRunner(connection);
+			scriptRunner.setLogWriter(null);
+			scriptRunner.runScript(schema);
+		}
+		
+		Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+		configuration.addInterceptor(STATEMENTS);
+		try (InputStream mapper = Resources.getResourceAsStream(MAPPER_XML)) {
+			new XMLMapperBuilder(mapper, configuration, MAPPER_XML, configuration.getSqlFragments()).parse();
+		}
+		sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+	}
+	
+	@BeforeEach
+	void resetCounter() {
+		STATEMENTS.count.set(0);
+	}
+	
+	@Test
+	void loadUserAndRolesInOneStatement() {
+		try (SqlSession session = sqlSessionFactory.openSession()) {
+			UserAuthPO user = session.getMapper(IUserMapper.class).selectUserAuthByName("alice");
+			
+			assertNotNull(user);
+			assertEquals(1L, user.getId());
+			assertEquals("$2a$10$alice", user.getPassword());
+			assertEquals(List.of(1L, 2L), user.getRoleIds());
+		}
+		assertEquals(1, STATEMENTS.count.get());
+	}
+	
+	@Test
+	void loadUserWithoutRoles() {
+		try (SqlSession session = sqlSessionFactory.openSession()) {
+			UserAuthPO user = session.getMapper(IUserMapper.class).selectUserAuthByName("carol");
+			
+			assertNotNull(user);
+			assertEquals(List.of(), user.getRoleIds());
+		}
+	}
+	
+	@Test
+	void lockedUserIsAbsent() {
+		try (SqlSession session = sqlSessionFactory.openSession()) {
+			IUserMapper userMapper = session.getMapper(IUserMapper.class);
+			
+			assertNull(userMapper.selectUserAuthByName("bob"));
+			assertNull(userMapper.selectPasswordByName("bob"));
+			assertEquals("bob", userMapper.selectUsernameById(2L));
+		}
+	}
+	
+	/**
+	 * 并发登录时每次登录只发出一条语句
+	 */
+	@Test
+	void loginBurstIssuesOneStatementPerLogin() throws Exception {
+		int logins = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<UserAuthPO>> results = new ArrayList<>(logins);
+			for (int i = 0; i < logins; i++) {
+				results.add(executor.submit(() -> {
+					try (SqlSession session = sqlSessionFactory.openSession()) {
+						return session.getMapper(IUserMapper.class).selectUserAuthByName("alice");
+					}
+				}));
+			}
+			for (Future<UserAuthPO> result : results) {
+				assertEquals(List.of(1L, 2L), result.get().getRoleIds());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(logins, STATEMENTS.count.get());
+	}
+	
+	/**
+	 * 统计准备执行的语句数, 每条语句对应一次数据库往返
+	 */
+	@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+	static final class StatementCounter implements Interceptor {
+		
+		private final AtomicInteger count = new AtomicInteger();
+		
+		@Override
+		public Object intercept(Invocation invocation) throws Throwable {
+			count.incrementAndGet();
+			return invocation.proceed();
+		}
+	
+	}
+	
+}
@@ -0,0 +1,64 @@
+-- 嵌入式数据库（H2, MySQL模式）中的测试表结构和数据, 只包含 user_mapper.xml 用到的列
+CREATE TABLE r_user
+(
+    id          BIGINT PRIMARY KEY,
+    username    VARCHAR(64)  NOT NULL,
+    password    VARCHAR(128) NOT NULL,
+    phone       VARCHAR(32),
+    is_locked   TINYINT      NOT NULL DEFAULT 0,
+    create_time DATETIME,
+    create_by   VARCHAR(64),
+    update_time DATETIME,
+    update_by   VARCHAR(64),
+    delete_time DATETIME,
+    delete_by   VARCHAR(64),
+    is_removed  TINYINT      NOT NULL DEFAULT 0
+);
+
+CREATE TABLE r_role
+(
+    id   BIGINT PRIMARY KEY,
+    name VARCHAR(64) NOT NULL
+);
+
+CREATE TABLE r_user_role
+(
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL
+);
+
+CREATE TABLE r_permission
+(
+    id   BIGINT PRIMARY KEY,
+    name VARCHAR(64) NOT NULL
+);
+
+CREATE TABLE r_role_permission
+(
+    role_id       BIGINT NOT NULL,
+    permission_id BIGINT NOT NULL
+);
+
+INSERT INTO r_user (id, username, password, is_locked, is_removed)
+VALUES (1, 'alice', '$2a$10$alice', 0, 0),
+       (2, 'bob', '$2a$10$bob', 1, 0),
+       (3, 'carol', '$2a$10$carol', 0, 0);
+
+INSERT INTO r_role (id, name)
+VALUES (1, 'ADMIN'),
+       (2, 'OPERATOR');
+
+INSERT INTO r_user_role (user_id, role_id)
+VALUES (1, 1),
+       (1, 2),
+       (2, 2);
+
+INSERT INTO r_permission (id, name)
+VALUES (1, 'user:read'),
+       (2, 'user:write'),
+       (3, 'device:read');
+
+INSERT INTO r_role_permission (role_id, permission_id)
+VALUES (1, 1),
+       (1, 2),
+       (2, 3);
@@ -7,20 +7,29 @@ import org.pms.core.domain.model.entity.LoginUser;
 import org.pms.core.domain.model.valobj.UserTokenVO;
 import org.pms.core.domain.repository.IAuthRepository;
 import org.pms.core.domain.service.ILoginService;
+import org.pms.core.infrastructure.security.PasswordVerificationExecutor;
 import org.pms.types.AuthCode;
 import org.pms.types.AuthConstants;
 import org.pms.types.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 认证服务 - 登录控制器
- * 提供登录、刷新token接口
+ * 提供登录、刷新token、登出接口
  *
  * @author alcsyooterranf
  * @version 1.0
@@ -33,6 +42,7 @@ public class LoginController {
 	
 	private static final String TOKEN_HEADER = AuthConstants.TOKEN_HEADER;
 	private static final String TOKEN_PREFIX = AuthConstants.TOKEN_PREFIX;
+	private static final String DEVICE_HEADER = "X-Device-Id";
 	
 	@Resource
 	private AuthenticationManager authenticationManager;
@@ -40,19 +50,64 @@ public class LoginController {
 	private IAuthRepository authRepository;
 	@Resource
 	private ILoginService loginService;
+	@Resource
+	private PasswordVerificationExecutor passwordVerificationExecutor;
+	
+	/**
+	 * 登录被拒绝时建议客户端重试的等待时间
+	 */
+	@Value("${auth.login.verification.retry-after:PT1S}")
+	private Duration retryAfter;
 	
 	/**
 	 * 用户登录接口
 	 * POST /auth/login
+	 * 密码校验在专用线程池中执行, 不占用请求线程; 线程池队列已满时返回429, 排队超时返回503, 均携带Retry-After
 	 *
 	 * @param username 用户名
 	 * @param password 密码
-	 * @return 登录结果（包含accessToken、refreshToken、publicKey64、authorities）
+	 * @param device   设备标识, 保存在refreshToken会话记录中, 可为空
+	 * @return 登录结果（包含accessToken、refreshToken、keyId、authorities, 以及按配置返回的publicKey64）
 	 */
 	@PostMapping("/login")
-	public Response<Map<String, Object>> login(@RequestParam String username, @RequestParam String password) {
+	public CompletableFuture<ResponseEntity<Response<Map<String, Object>>>> login(@RequestParam String username,
+																				  @RequestParam String password,
+																				  @RequestHeader(value = DEVICE_HEADER, required = false) String device) {
 		log.info("用户登录请求, username: {}", username);
 		
+		try {
+			return passwordVerificationExecutor.submit(() -> doLogin(username, password, device))
+					.thenApply(ResponseEntity::ok)
+					.exceptionally(e -> {
+						Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+						if (cause instanceof RejectedExecutionException) {
+							log.warn("登录请求排队超时, username: {}, error: {}", username, cause.getMessage());
+							return rejected(HttpStatus.SERVICE_UNAVAILABLE);
+						}
+						log.error("用户登录失败, username: {}, error: {}", username, cause.getMessage());
+						return ResponseEntity.ok(Response.<Map<String, Object>>builder().code(AuthCode.LOGIN_FAIL.getCode()).message(AuthCode.LOGIN_FAIL.getMessage()).build());
+					});
+		} catch (RejectedExecutionException e) {
+			log.warn("登录请求过多, 密码校验队列已满, username: {}", username);
+			return CompletableFuture.completedFuture(rejected(HttpStatus.TOO_MANY_REQUESTS));
+		}
+	}
+	
+	private ResponseEntity<Response<Map<String, Object>>> rejected(HttpStatus status) {
+		return ResponseEntity.status(status)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+				.body(Response.<Map<String, Object>>builder().code(AuthCode.LOGIN_FAIL.getCode()).message(AuthCode.LOGIN_FAIL.getMessage()).build());
+	}
+	
+	/**
+	 * 认证并签发token, 在密码校验线程池中执行
+	 *
+	 * @param username 用户名
+	 * @param password 密码
+	 * @param device   设备标识
+	 * @return 登录结果
+	 */
+	private Response<Map<String, Object>> doLogin(String username, String password, String device) {
 		try {
 			// 1. 使用Spring Security进行认证
 			UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(username, password);
@@ -66,7 +121,7 @@ public class LoginController {
 			}
 			
 			// 3. 生成并保存token
-			authRepository.saveUserToken(loginUser);
+			authRepository.saveUserToken(loginUser, device);
 			
 			if (loginUser.getTokenVO() == null) {
 				log.error("Token生成失败, username: {}", username);
@@ -78,7 +133,10 @@ public class LoginController {
 			result.put("authorities", loginUser.getAuthorities());
 			result.put("accessToken", loginUser.getTokenVO().getAccessToken());
 			result.put("refreshToken", loginUser.getTokenVO().getRefreshToken());
-			result.put("publicKey64", loginUser.getTokenVO().getPublicKey64());
+			result.put("keyId", loginUser.getTokenVO().getKeyId());
+			if (loginUser.getTokenVO().getPublicKey64() != null) {
+				result.put("publicKey64", loginUser.getTokenVO().getPublicKey64());
+			}
 			
 			log.info("用户登录成功, username: {}", username);
 			return Response.<Map<String, Object>>builder().code(AuthCode.LOGIN_SUCCESS.getCode()).message(AuthCode.LOGIN_SUCCESS.getMessage()).data(result).build();
@@ -121,6 +179,38 @@ public class LoginController {
 		}
 	}
 	
+	/**
+	 * 登出接口
+	 * POST /auth/logout
+	 * 撤销accessToken（Consumer端同步撤销列表后拒绝该token）, 并删除传入的refreshToken会话
+	 *
+	 * @param authHeader   Authorization header (Bearer <accessToken>)
+	 * @param refreshToken 需要同时删除的refreshToken, 可为空
+	 * @return 是否登出成功
+	 */
+	@PostMapping("/logout")
+	public Response<Boolean> logout(@RequestHeader(TOKEN_HEADER) String authHeader,
+									@RequestParam(required = false) String refreshToken) {
+		log.info("登出请求");
+		
+		try {
+			String accessToken = StringUtils.substring(authHeader, TOKEN_PREFIX.length() + 1);
+			if (StringUtils.isNotBlank(accessToken)) {
+				authRepository.revokeAccessToken(accessToken);
+			}
+			if (StringUtils.isNotBlank(refreshToken)) {
+				authRepository.removeRefreshToken(refreshToken);
+			}
+			
+			log.info("登出成功");
+			return Response.<Boolean>builder().code(AuthCode.SUCCESS.getCode()).message(AuthCode.SUCCESS.getMessage()).data(true).build();
+			
+		} catch (Exception e) {
+			log.error("登出失败, error: {}", e.getMessage());
+			return Response.<Boolean>builder().code(AuthCode.TOKEN_PARSE_ERROR.getCode()).message(AuthCode.TOKEN_PARSE_ERROR.getMessage()).data(false).build();
+		}
+	}
+	
 	/**
 	 * 测试接口
 	 * GET /auth/success
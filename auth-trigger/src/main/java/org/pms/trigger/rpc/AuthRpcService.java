@@ -1,12 +1,34 @@
 package org.pms.trigger.rpc;
 
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.pms.api.IAuthRpcService;
+import org.pms.api.dto.PermissionDictionaryDTO;
+import org.pms.api.dto.PublicKeySetDTO;
+import org.pms.api.dto.RevocationDeltaDTO;
+import org.pms.api.dto.SessionDTO;
+import org.pms.api.utils.PermissionDictionary;
+import org.pms.core.domain.repository.IAuthRepository;
+import org.pms.core.domain.repository.IUserRepository;
+import org.pms.core.infrastructure.cache.CachingUserDetailsService;
+import org.pms.core.infrastructure.cache.RolePermissionCache;
+import org.pms.core.infrastructure.key.JwkSet;
+import org.pms.core.infrastructure.key.SigningKeyRing;
 import org.pms.core.infrastructure.utils.JwtUtil;
+import org.pms.core.initialization.AuthRunner;
 import org.pms.types.AuthCode;
 import org.pms.types.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Auth服务RPC接口实现类 - Provider端
  * 提供内部RPC接口给Consumer端（Gateway、WS服务）调用
@@ -21,6 +43,23 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/rpc/auth")
 public class AuthRpcService implements IAuthRpcService {
 	
+	private static final MediaType JWK_SET_JSON = MediaType.parseMediaType("application/jwk-set+json");
+	
+	/**
+	 * JWKS的缓存时间, 密钥轮换后调用方最迟在该时间后获取到新公钥
+	 */
+	@Value("${auth.jwks.max-age:PT5M}")
+	private Duration jwksMaxAge;
+	
+	@Resource
+	private IAuthRepository authRepository;
+	@Resource
+	private RolePermissionCache rolePermissionCache;
+	@Resource
+	private IUserRepository userRepository;
+	@Resource
+	private StringRedisTemplate stringRedisTemplate;
+	
 	@Override
 	@GetMapping("/publicKey")
 	public Response<String> getPublicKey() {
@@ -59,4 +98,155 @@ public class AuthRpcService implements IAuthRpcService {
 		}
 	}
 	
+	@Override
+	@GetMapping("/publicKeys")
+	public Response<PublicKeySetDTO> getPublicKeys() {
+		try {
+			SigningKeyRing keyRing = AuthRunner.getKeyRing();
+			Map<String, String> keys = keyRing.getPublicKeys();
+			PublicKeySetDTO publicKeySet = PublicKeySetDTO.builder()
+					.activeKeyId(keyRing.getActiveKey().getKid())
+					.keys(keys)
+					.build();
+			log.info("RPC接口：公钥集合获取成功, keyIds: {}", keys.keySet());
+			return Response.<PublicKeySetDTO>builder()
+					.code(AuthCode.SUCCESS.getCode())
+					.message(AuthCode.SUCCESS.getMessage())
+					.data(publicKeySet)
+					.build();
+		} catch (Exception e) {
+			log.error("RPC接口：获取公钥集合失败", e);
+			throw new RuntimeException("获取公钥集合失败: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	@PostMapping("/sessions/{userId}/revoke")
+	public Response<Integer> revokeUserSessions(@PathVariable("userId") Long userId) {
+		try {
+			int revoked = authRepository.revokeAllSessions(userId);
+			evictUserCache(userId);
+			log.info("RPC接口：已撤销用户全部会话, userId: {}, 会话数: {}", userId, revoked);
+			return Response.<Integer>builder()
+					.code(AuthCode.SUCCESS.getCode())
+					.message(AuthCode.SUCCESS.getMessage())
+					.data(revoked)
+					.build();
+		} catch (Exception e) {
+			log.error("RPC接口：撤销用户会话失败, userId: {}", userId, e);
+			throw new RuntimeException("撤销用户会话失败: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 清除用户登录缓存
+	 * 由各实例的 {@link CachingUserDetailsService} 订阅失效消息后清除本地缓存和Redis缓存, 账号状态变化在下次登录时立即生效
+	 *
+	 * @param userId 用户ID
+	 */
+	private void evictUserCache(Long userId) {
+		String username = userRepository.queryUsernameById(userId);
+		if (username != null) {
+			stringRedisTemplate.convertAndSend(CachingUserDetailsService.INVALIDATE_CHANNEL, username);
+		}
+	}
+	
+	@Override
+	@GetMapping("/sessions/{userId}")
+	public Response<List<SessionDTO>> listUserSessions(@PathVariable("userId") Long userId) {
+		try {
+			List<SessionDTO> sessions = authRepository.listSessions(userId).stream()
+					.map(session -> SessionDTO.builder()
+							.sessionId(session.getJti())
+							.issuedAt(session.getIssuedAt())
+							.device(session.getDevice())
+							.build())
+					.toList();
+			return Response.<List<SessionDTO>>builder()
+					.code(AuthCode.SUCCESS.getCode())
+					.message(AuthCode.SUCCESS.getMessage())
+					.data(sessions)
+					.build();
+		} catch (Exception e) {
+			log.error("RPC接口：获取用户会话失败, userId: {}", userId, e);
+			throw new RuntimeException("获取用户会话失败: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	@GetMapping("/revocations")
+	public Response<RevocationDeltaDTO> getRevocations(@RequestParam(value = "since", defaultValue = "0") long since) {
+		try {
+			Map<String, Long> revoked = authRepository.getRevocationsSince(since);
+			long cursor = since;
+			for (Long revokedAt : revoked.values()) {
+				cursor = Math.max(cursor, revokedAt);
+			}
+			return Response.<RevocationDeltaDTO>builder()
+					.code(AuthCode.SUCCESS.getCode())
+					.message(AuthCode.SUCCESS.getMessage())
+					.data(RevocationDeltaDTO.builder().revoked(revoked).cursor(cursor).build())
+					.build();
+		} catch (Exception e) {
+			log.error("RPC接口：获取撤销列表失败, since: {}", since, e);
+			throw new RuntimeException("获取撤销列表失败: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	@GetMapping("/permissionDictionary")
+	public Response<PermissionDictionaryDTO> getPermissionDictionary() {
+		try {
+			PermissionDictionary dictionary = rolePermissionCache.getDictionary();
+			return Response.<PermissionDictionaryDTO>builder()
+					.code(AuthCode.SUCCESS.getCode())
+					.message(AuthCode.SUCCESS.getMessage())
+					.data(PermissionDictionaryDTO.builder()
+							.version(dictionary.getVersion())
+							.permissions(dictionary.getPermissions())
+							.build())
+					.build();
+		} catch (Exception e) {
+			log.error("RPC接口：获取权限字典失败", e);
+			throw new RuntimeException("获取权限字典失败: " + e.getMessage(), e);
+		}
+	}
+	
+	@Override
+	@GetMapping(value = "/permissionDictionary", params = "version")
+	public Response<PermissionDictionaryDTO> getPermissionDictionary(@RequestParam("version") String version) {
+		try {
+			PermissionDictionary dictionary = rolePermissionCache.getDictionary(version);
+			PermissionDictionaryDTO data = dictionary == null ? null : PermissionDictionaryDTO.builder()
+					.version(dictionary.getVersion())
+					.permissions(dictionary.getPermissions())
+					.build();
+			return Response.<PermissionDictionaryDTO>builder()
+					.code(AuthCode.SUCCESS.getCode())
+					.message(AuthCode.SUCCESS.getMessage())
+					.data(data)
+					.build();
+		} catch (Exception e) {
+			log.error("RPC接口：获取权限字典失败, version: {}", version, e);
+			throw new RuntimeException("获取权限字典失败: " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * 获取JWKS格式的公钥集合
+	 * 响应体为密钥环构建时预先序列化好的字节, 携带强ETag;
+	 * 调用方携带If-None-Match重新校验时, 若密钥集合未变化由Spring MVC直接返回304, 不再传输公钥
+	 *
+	 * @return JWKS
+	 */
+	@GetMapping("/jwks")
+	public ResponseEntity<byte[]> getJwks() {
+		JwkSet jwkSet = AuthRunner.getKeyRing().getJwkSet();
+		return ResponseEntity.ok()
+				.contentType(JWK_SET_JSON)
+				.eTag(jwkSet.getEtag())
+				.cacheControl(CacheControl.maxAge(jwksMaxAge).cachePublic())
+				.body(jwkSet.getJson());
+	}
+	
 }